@@ -0,0 +1,104 @@
+package io.github.zap.regularcommands.benchmarks;
+
+import io.github.zap.regularcommands.converter.ConversionResult;
+import io.github.zap.regularcommands.util.Converters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the exception-free parsers in {@link Converters} with converters that call the JDK's parsing methods and
+ * catch the NumberFormatException thrown for invalid input, on both valid and invalid arguments.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConverterBenchmark {
+    private static final String[] VALID_INTEGERS = { "0", "7", "-42", "1024", "2147483647", "-2147483648" };
+    private static final String[] INVALID_INTEGERS = { "", "abc", "12x", "2147483648", "--1", "1.5" };
+    private static final String[] VALID_DECIMALS = { "0", "1.5", "-42.25", "1e10", "6.02214076e23", ".5" };
+    private static final String[] INVALID_DECIMALS = { "", "abc", "1.5.5", "1e", "--1", "0x" };
+
+    @Param({ "valid", "invalid" })
+    public String input;
+
+    private String[] integers;
+    private String[] decimals;
+
+    @Setup
+    public void setup() {
+        boolean valid = input.equals("valid");
+        integers = valid ? VALID_INTEGERS : INVALID_INTEGERS;
+        decimals = valid ? VALID_DECIMALS : INVALID_DECIMALS;
+    }
+
+    @Benchmark
+    public void convertersInt(Blackhole blackhole) {
+        for(String argument : integers) {
+            blackhole.consume(Converters.INTEGER_CONVERTER.convert(null, argument));
+        }
+    }
+
+    @Benchmark
+    public void jdkInt(Blackhole blackhole) {
+        for(String argument : integers) {
+            try {
+                blackhole.consume(ConversionResult.of(true, Integer.parseInt(argument), null));
+            }
+            catch (NumberFormatException ignored) {
+                blackhole.consume(ConversionResult.of(false, null, null));
+            }
+        }
+    }
+
+    @Benchmark
+    public void convertersDouble(Blackhole blackhole) {
+        for(String argument : decimals) {
+            blackhole.consume(Converters.DOUBLE_CONVERTER.convert(null, argument));
+        }
+    }
+
+    @Benchmark
+    public void jdkDouble(Blackhole blackhole) {
+        for(String argument : decimals) {
+            try {
+                blackhole.consume(ConversionResult.of(true, Double.parseDouble(argument), null));
+            }
+            catch (NumberFormatException ignored) {
+                blackhole.consume(ConversionResult.of(false, null, null));
+            }
+        }
+    }
+
+    @Benchmark
+    public void convertersBigDecimal(Blackhole blackhole) {
+        for(String argument : decimals) {
+            blackhole.consume(Converters.BIG_DECIMAL_CONVERTER.convert(null, argument));
+        }
+    }
+
+    @Benchmark
+    public void jdkBigDecimal(Blackhole blackhole) {
+        for(String argument : decimals) {
+            try {
+                blackhole.consume(ConversionResult.of(true, new BigDecimal(argument), null));
+            }
+            catch (NumberFormatException ignored) {
+                blackhole.consume(ConversionResult.of(false, null, null));
+            }
+        }
+    }
+}
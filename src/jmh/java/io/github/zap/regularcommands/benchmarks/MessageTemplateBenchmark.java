@@ -0,0 +1,70 @@
+package io.github.zap.regularcommands.benchmarks;
+
+import io.github.zap.regularcommands.commands.DefaultKeys;
+import io.github.zap.regularcommands.translation.MessageTemplate;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares formatting a message with a precompiled {@link MessageTemplate} against MessageFormat, both when a single
+ * MessageFormat is reused and when one is created for every message, as translators that return a fresh MessageFormat
+ * on each lookup require. copiedMessageFormat measures the copy that translators built on MessageTemplate return.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MessageTemplateBenchmark {
+    private static final String PATTERN = DefaultKeys.ERROR_CONVERT_RANGE.getPattern();
+    private static final Object[] ARGUMENTS = { "64", "0", "32" };
+    private static final List<Component> COMPONENTS = List.of(Component.text("64"), Component.text("0"),
+            Component.text("32"));
+
+    private MessageTemplate template;
+    private MessageFormat format;
+
+    @Setup
+    public void setup() {
+        template = MessageTemplate.compile(PATTERN);
+        format = new MessageFormat(PATTERN, Locale.US);
+    }
+
+    @Benchmark
+    public String templateFormat() {
+        return template.format(ARGUMENTS);
+    }
+
+    @Benchmark
+    public Component templateRender() {
+        return template.render(COMPONENTS);
+    }
+
+    @Benchmark
+    public String sharedMessageFormat() {
+        return format.format(ARGUMENTS);
+    }
+
+    @Benchmark
+    public String copiedMessageFormat() {
+        return template.toMessageFormat(Locale.US).format(ARGUMENTS);
+    }
+
+    @Benchmark
+    public String newMessageFormat() {
+        return new MessageFormat(PATTERN, Locale.US).format(ARGUMENTS);
+    }
+}
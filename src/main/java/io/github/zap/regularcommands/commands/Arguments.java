@@ -0,0 +1,261 @@
+package io.github.zap.regularcommands.commands;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Holds the converted arguments of a command. Each slot holds either an object, or an int, long, double or boolean
+ * that is stored without boxing; primitive slots are written by converters such as
+ * {@link io.github.zap.regularcommands.converter.IntArgumentConverter} and read with the matching accessor, such as
+ * {@link #getInt(int)}. Reading a primitive slot with {@link #get(int)} boxes it, and a primitive accessor may also be
+ * used on an object slot that holds the corresponding wrapper type.
+ *
+ * For compatibility with code written against argument arrays, {@link #toArray()} returns the arguments as an Object[],
+ * boxing primitive slots. Instances supplied by CommandManager during dispatch are reused between commands, so they
+ * should not be retained, although arrays returned by toArray may be.
+ */
+public final class Arguments {
+    private static final byte REFERENCE = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private byte[] kinds;
+    private long[] values; //primitive slots; doubles are stored as their raw bits, booleans as 0 or 1
+    private Object[] references;
+    private int size;
+
+    private Object[] view; //null until toArray is called, and after any change
+
+    /**
+     * Creates an Arguments instance with the given number of slots, all of which are initially null.
+     * @param size The number of slots
+     */
+    public Arguments(int size) {
+        if(size < 0) {
+            throw new IllegalArgumentException("size cannot be negative");
+        }
+
+        this.kinds = new byte[size];
+        this.values = new long[size];
+        this.references = new Object[size];
+        this.size = size;
+    }
+
+    /**
+     * Creates an Arguments instance holding the given objects, as if by calling {@link #set(int, Object)} for each.
+     * @param arguments The arguments
+     * @return A new Arguments instance
+     */
+    public static @NotNull Arguments of(@NotNull Object... arguments) {
+        Objects.requireNonNull(arguments, "arguments cannot be null");
+
+        Arguments result = new Arguments(arguments.length);
+        System.arraycopy(arguments, 0, result.references, 0, arguments.length);
+        return result;
+    }
+
+    /**
+     * Gets the number of slots.
+     * @return The number of slots
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the argument at the given index, boxing it if it is stored as a primitive.
+     * @param index The index of the argument
+     * @return The argument, which may be null
+     */
+    public @Nullable Object get(int index) {
+        checkIndex(index);
+        long value = values[index];
+
+        switch (kinds[index]) {
+            case INT:
+                return (int)value;
+            case LONG:
+                return value;
+            case DOUBLE:
+                return Double.longBitsToDouble(value);
+            case BOOLEAN:
+                return value != 0;
+            case REFERENCE:
+            default:
+                return references[index];
+        }
+    }
+
+    /**
+     * Gets an int argument.
+     * @param index The index of the argument
+     * @return The argument
+     * @throws ClassCastException if the argument is not an int
+     * @throws NullPointerException if the argument is null
+     */
+    public int getInt(int index) {
+        checkIndex(index);
+        return kinds[index] == INT ? (int)values[index] : (Integer)get(index);
+    }
+
+    /**
+     * Gets a long argument.
+     * @param index The index of the argument
+     * @return The argument
+     * @throws ClassCastException if the argument is not a long
+     * @throws NullPointerException if the argument is null
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        return kinds[index] == LONG ? values[index] : (Long)get(index);
+    }
+
+    /**
+     * Gets a double argument.
+     * @param index The index of the argument
+     * @return The argument
+     * @throws ClassCastException if the argument is not a double
+     * @throws NullPointerException if the argument is null
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        return kinds[index] == DOUBLE ? Double.longBitsToDouble(values[index]) : (Double)get(index);
+    }
+
+    /**
+     * Gets a boolean argument.
+     * @param index The index of the argument
+     * @return The argument
+     * @throws ClassCastException if the argument is not a boolean
+     * @throws NullPointerException if the argument is null
+     */
+    public boolean getBoolean(int index) {
+        checkIndex(index);
+        return kinds[index] == BOOLEAN ? values[index] != 0 : (Boolean)get(index);
+    }
+
+    /**
+     * Sets an argument to an object.
+     * @param index The index of the argument
+     * @param value The new value, which may be null
+     */
+    public void set(int index, @Nullable Object value) {
+        checkIndex(index);
+        kinds[index] = REFERENCE;
+        references[index] = value;
+        view = null;
+    }
+
+    /**
+     * Sets an argument to an int, which is stored without boxing.
+     * @param index The index of the argument
+     * @param value The new value
+     */
+    public void setInt(int index, int value) {
+        setPrimitive(index, INT, value);
+    }
+
+    /**
+     * Sets an argument to a long, which is stored without boxing.
+     * @param index The index of the argument
+     * @param value The new value
+     */
+    public void setLong(int index, long value) {
+        setPrimitive(index, LONG, value);
+    }
+
+    /**
+     * Sets an argument to a double, which is stored without boxing.
+     * @param index The index of the argument
+     * @param value The new value
+     */
+    public void setDouble(int index, double value) {
+        setPrimitive(index, DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Sets an argument to a boolean, which is stored without boxing.
+     * @param index The index of the argument
+     * @param value The new value
+     */
+    public void setBoolean(int index, boolean value) {
+        setPrimitive(index, BOOLEAN, value ? 1 : 0);
+    }
+
+    /**
+     * Returns the arguments as an Object[], boxing any primitive slots. The array is cached until an argument is
+     * changed, so repeated calls are cheap. Once an argument is changed or this instance is reused, a new array is
+     * created, so a returned array is never modified by this instance and may be retained. Changes made to the array
+     * are not reflected in this instance.
+     * @return An array of the arguments, with length equal to size()
+     */
+    public @NotNull Object[] toArray() {
+        if(view == null) {
+            Object[] array = new Object[size];
+            for(int i = 0; i < size; i++) {
+                array[i] = get(i);
+            }
+
+            view = array;
+        }
+
+        return view;
+    }
+
+    /**
+     * Creates an independent copy of these arguments, which may be retained.
+     * @return A new Arguments instance with the same contents
+     */
+    public @NotNull Arguments copy() {
+        Arguments copy = new Arguments(size);
+        System.arraycopy(kinds, 0, copy.kinds, 0, size);
+        System.arraycopy(values, 0, copy.values, 0, size);
+        System.arraycopy(references, 0, copy.references, 0, size);
+        return copy;
+    }
+
+    /**
+     * Resizes this instance for reuse, growing its storage only if needed. All slots are null afterwards.
+     * @param size The new number of slots
+     */
+    void reset(int size) {
+        if(size > kinds.length) {
+            int capacity = Math.max(size, kinds.length * 2);
+            kinds = new byte[capacity];
+            values = new long[capacity];
+            references = new Object[capacity];
+        }
+
+        clear();
+        this.size = size;
+    }
+
+    /**
+     * Drops every reference held by this instance, so that converted values do not outlive the dispatch that created
+     * them. Arrays already returned by toArray are left intact.
+     */
+    void clear() {
+        Arrays.fill(kinds, 0, size, REFERENCE);
+        Arrays.fill(references, 0, size, null);
+        view = null;
+    }
+
+    private void setPrimitive(int index, byte kind, long value) {
+        checkIndex(index);
+        kinds[index] = kind;
+        values[index] = value;
+        references[index] = null;
+        view = null;
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+    }
+}
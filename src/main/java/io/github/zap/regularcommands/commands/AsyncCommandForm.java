@@ -0,0 +1,90 @@
+package io.github.zap.regularcommands.commands;
+
+import io.github.zap.regularcommands.converter.Parameter;
+import io.github.zap.regularcommands.validator.ValidationResult;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A CommandForm whose validation and execution may take a long time, such as forms that query a database. Argument
+ * conversion and the validator returned by getValidator still run on the thread that dispatched the command (normally
+ * the main thread). After that, validateAsync and then executeAsync are run on CommandManager's async executor (see
+ * {@link CommandManager#setAsyncExecutor(java.util.concurrent.Executor)}).
+ *
+ * Once the future returned by executeAsync completes, its message is sent to the sender on the main thread. If
+ * validateAsync produces an invalid result, its error message is sent instead; if either future completes
+ * exceptionally, the exception is logged and the sender receives a generic error message. If the sender is a player
+ * who is no longer online when the result is ready, the message is discarded.
+ *
+ * Unlike synchronous forms, the context and arguments passed to validateAsync and executeAsync are not reused by
+ * CommandManager, so they may be retained until the returned future completes. They receive the arguments as an array,
+ * boxing any primitive values, since the array is copied out of the dispatch scratch area anyway. Implementations must
+ * not call Bukkit API that is restricted to the main thread from validateAsync or executeAsync.
+ * @param <T> The type of data object produced by validation
+ */
+public abstract class AsyncCommandForm<T> extends CommandForm<T> {
+    /**
+     * Creates an AsyncCommandForm. See {@link CommandForm#CommandForm(RegularCommand, Component, PermissionData,
+     * Parameter...)} for details.
+     * @param command The RegularCommand instance this AsyncCommandForm is tied to
+     * @param usage A short, user-friendly description of what the command does
+     * @param permissionData The permissions required to execute this command
+     * @param parameters The parameters array that defines the signature of this command
+     */
+    public AsyncCommandForm(@NotNull RegularCommand command, @NotNull Component usage,
+                            @NotNull PermissionData permissionData, @NotNull Parameter... parameters) {
+        super(command, usage, permissionData, parameters);
+    }
+
+    /**
+     * Performs additional validation off the main thread. This is run after the validator returned by getValidator,
+     * if any, has succeeded. By default, it succeeds without changing the data.
+     * @param context The current context
+     * @param arguments An array of converted values
+     * @param data The data produced by getValidator's validator, or null if there is none
+     * @return A future that completes with the result of validation
+     */
+    public @NotNull CompletableFuture<ValidationResult<T>> validateAsync(Context context, Object[] arguments, T data) {
+        return CompletableFuture.completedFuture(ValidationResult.of(true, null, data));
+    }
+
+    /**
+     * Runs the command off the main thread, after all validation has succeeded.
+     * @param context The current context
+     * @param arguments An array of converted values
+     * @param data The data produced by validation
+     * @return A future that completes with the message to display to the sender, which may be null
+     */
+    public abstract @NotNull CompletableFuture<Component> executeAsync(Context context, Object[] arguments, T data);
+
+    /**
+     * Starts the asynchronous part of this form: validateAsync and then executeAsync are run on CommandManager's async
+     * executor, with copies of the given context and arguments, and the resulting message is sent to the context's
+     * sender once it is ready. This is called by CommandManager after getValidator's validator has succeeded.
+     * @param context The current context
+     * @param arguments The converted values
+     * @param data The data produced by getValidator's validator, or null if there is none
+     * @return null, since the message is sent to the sender when executeAsync completes
+     */
+    @Override
+    public final @Nullable Component execute(Context context, Arguments arguments, T data) {
+        getCommand().getManager().executeAsync(this, context.getSender(), arguments, data);
+        return null;
+    }
+
+    /**
+     * Starts the asynchronous part of this form, given the converted arguments as an array. See
+     * {@link #execute(Context, Arguments, Object)} for details.
+     * @param context The current context
+     * @param arguments An array of converted values
+     * @param data The data produced by getValidator's validator, or null if there is none
+     * @return null, since the message is sent to the sender when executeAsync completes
+     */
+    @Override
+    public final @Nullable Component execute(Context context, Object[] arguments, T data) {
+        return execute(context, Arguments.of(arguments), data);
+    }
+}
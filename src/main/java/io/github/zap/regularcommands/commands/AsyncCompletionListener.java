@@ -0,0 +1,63 @@
+package io.github.zap.regularcommands.commands;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+import java.util.List;
+
+/**
+ * Answers tab completion requests for a CommandManager's commands from Paper's asynchronous completion event. Requests
+ * that can't be completed asynchronously, including those for commands that aren't managed by the CommandManager, are
+ * left unhandled so that the server completes them on the main thread as usual. Since the Permissible API can't be used
+ * off the main thread, requests are only completed asynchronously for players whose grants are cached by the
+ * {@link PermissionCache}.
+ */
+final class AsyncCompletionListener implements Listener {
+    private final CommandManager manager;
+
+    AsyncCompletionListener(CommandManager manager) {
+        this.manager = manager;
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if(event.isHandled() || !event.isCommand()) {
+            return;
+        }
+
+        String buffer = event.getBuffer();
+        int labelStart = buffer.startsWith("/") ? 1 : 0;
+        int labelEnd = buffer.indexOf(' ', labelStart);
+
+        if(labelEnd == -1) { //the label itself is being completed, which the server handles
+            return;
+        }
+
+        CommandSender sender = event.getSender();
+        PluginCommand pluginCommand = manager.getPluginCommand(buffer.substring(labelStart, labelEnd));
+
+        /*
+        permissions, including the command's own, are tested by complete against cached grants only. it returns null
+        for senders without a fresh cached entry and for players without permission, which the main thread path then
+        handles as usual
+         */
+        if(pluginCommand == null) {
+            return;
+        }
+
+        RegularCommand command = manager.getCommand(pluginCommand.getName());
+        if(command != null) {
+            //split the same way the server does for tab completion, keeping the empty argument being typed
+            String[] args = buffer.substring(labelEnd + 1).split(" ", -1);
+            List<String> completions = manager.complete(command, sender, args, true);
+
+            if(completions != null) {
+                event.setCompletions(completions);
+                event.setHandled(true);
+            }
+        }
+    }
+}
@@ -1,27 +1,105 @@
 package io.github.zap.regularcommands.commands;
 
+import io.github.zap.regularcommands.translation.MessageCache;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.kyori.adventure.translation.Translator;
 import org.apache.commons.lang.Validate;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * PageBuilder that lists the usage of each form, a fixed number of forms per page. Senders only see the forms they
+ * have permission to use.
+ *
+ * Pages are built lazily and cached for each combination of visible forms and locale, so senders with the same
+ * permissions and locale share pages. Pages for players are rendered in the player's locale when they are built, so
+ * sending a cached page does not translate it again. The cache is discarded whenever an entry is added, and whenever
+ * the manager's {@link MessageCache} discards its messages, so that pages follow changes to translations.
+ */
 public class BasicPageBuilder implements PageBuilder {
     private static final int DEFAULT_ENTRIES_PER_PAGE = 8;
+    private static final int MAXIMUM_CACHED_VIEWS = 64;
 
-    private final int entriesPerPage;
-    private final List<Component[]> pages;
-    private int lastPageSize = 0;
+    /**
+     * The entries and the pages built from them. Replaced whenever an entry is added.
+     */
+    private static final class Snapshot {
+        private final CommandForm<?>[] entries;
+        private final MessageCache messageCache; //null if there are no entries
+        private final Map<View, Component[]> views = new ConcurrentHashMap<>();
+        private volatile long generation; //the generation of messageCache when the views were rendered
+
+        private Snapshot(CommandForm<?>[] entries, MessageCache messageCache) {
+            this.entries = entries;
+            this.messageCache = messageCache;
+            this.generation = messageCache == null ? 0 : messageCache.generation();
+        }
+
+        /* discards every view if translations have changed since they were rendered */
+        private Map<View, Component[]> views() {
+            if(messageCache != null) {
+                long current = messageCache.generation();
+
+                if(current != generation) {
+                    views.clear();
+                    generation = current;
+                }
+            }
+
+            return views;
+        }
+    }
+
+    /**
+     * The entries visible to a sender, and the locale pages are rendered in (null if they are not rendered).
+     */
+    private static final class View {
+        private final BitSet visible;
+        private final Locale locale;
+
+        private View(BitSet visible, Locale locale) {
+            this.visible = visible;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            else if(obj instanceof View) {
+                View other = (View)obj;
+                return visible.equals(other.visible) && Objects.equals(locale, other.locale);
+            }
+
+            return false;
+        }
 
+        @Override
+        public int hashCode() {
+            return visible.hashCode() * 31 + Objects.hashCode(locale);
+        }
+    }
+
+    private final int entriesPerPage;
+    private volatile Snapshot snapshot;
 
     public BasicPageBuilder(int entriesPerPage) {
         Validate.isTrue(entriesPerPage > 0, "entriesPerPage must be > 0");
-        this.pages = new ArrayList<>();
         this.entriesPerPage = entriesPerPage;
+        this.snapshot = new Snapshot(new CommandForm<?>[0], null);
     }
 
     public BasicPageBuilder() {
@@ -29,33 +107,127 @@ public class BasicPageBuilder implements PageBuilder {
     }
 
     @Override
-    public void addEntry(@NotNull CommandForm<?> form) {
-        Component[] lastPageArray = pages.get(pages.size() - 1);
-        if(lastPageSize >= lastPageArray.length) {
-            pages.add(lastPageArray = new Component[entriesPerPage]);
-            lastPageSize = 0;
-        }
-
-        lastPageArray[lastPageSize++] = form.getUsage();
+    public synchronized void addEntry(@NotNull CommandForm<?> form) {
+        Objects.requireNonNull(form, "form cannot be null");
+        CommandForm<?>[] entries = snapshot.entries;
+        CommandForm<?>[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+        newEntries[entries.length] = form;
+        snapshot = new Snapshot(newEntries, form.getCommand().getManager().getMessageCache());
     }
 
     @Override
     public @NotNull Component getPage(int index) {
-        if(index < pages.size()) {
-            Component[] pageBody = pages.get(index);
-            Component[] fullPage = new Component[pageBody.length + 1];
-            fullPage[0] = Component.translatable(DefaultKeys.NAVBAR.key(), Component.text(index + 1),
-                    Component.text(pages.size()));
+        return getPage(snapshot, null, index, true);
+    }
 
-            System.arraycopy(pageBody, 0, fullPage, 1, pageBody.length);
-            return Component.join(Component.newline(), Arrays.stream(fullPage).filter(Objects::nonNull).collect(Collectors.toList()));
-        }
+    @Override
+    public int pageCount() {
+        return pageCount(snapshot.entries.length);
+    }
 
-        throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + pages.size());
+    @Override
+    public @NotNull Component getPage(@NotNull CommandSender sender, int index) {
+        return getPage(snapshot, Objects.requireNonNull(sender, "sender cannot be null"), index, true);
     }
 
     @Override
-    public int pageCount() {
-        return pages.size();
+    public int pageCount(@NotNull CommandSender sender) {
+        Snapshot current = snapshot;
+        return pageCount(visibleTo(current.entries, Objects.requireNonNull(sender, "sender cannot be null"))
+                .cardinality());
+    }
+
+    /**
+     * Gets a page as it should be shown to the given sender, working out which entries the sender can see only once.
+     * @param sender The sender who requested the page
+     * @param index The index of the page
+     * @return The page, or null if the index is out of bounds for the sender
+     */
+    @Override
+    public @Nullable Component findPage(@NotNull CommandSender sender, int index) {
+        return getPage(snapshot, Objects.requireNonNull(sender, "sender cannot be null"), index, false);
+    }
+
+    /*
+    a null sender sees every entry, untranslated. if the index is out of bounds, either throws or returns null,
+    depending on required
+     */
+    private Component getPage(Snapshot current, CommandSender sender, int index, boolean required) {
+        View view = new View(visibleTo(current.entries, sender), localeOf(sender));
+        Map<View, Component[]> views = current.views();
+        Component[] pages = views.get(view);
+
+        if(pages == null) {
+            if(views.size() >= MAXIMUM_CACHED_VIEWS) {
+                views.clear();
+            }
+
+            pages = new Component[pageCount(view.visible.cardinality())];
+            Component[] existing = views.putIfAbsent(view, pages);
+            if(existing != null) {
+                pages = existing;
+            }
+        }
+
+        if(index < 0 || index >= pages.length) {
+            if(required) {
+                throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + pages.length);
+            }
+
+            return null;
+        }
+
+        Component page = pages[index];
+        if(page == null) { //racing threads may each build the page, but they are equivalent
+            pages[index] = page = buildPage(current.entries, view, index, pages.length);
+        }
+
+        return page;
+    }
+
+    private Component buildPage(CommandForm<?>[] entries, View view, int index, int pageCount) {
+        List<Component> lines = new ArrayList<>(entriesPerPage + 1);
+        lines.add(Component.translatable(DefaultKeys.NAVBAR.key(), Component.text(index + 1),
+                Component.text(pageCount)));
+
+        int skip = index * entriesPerPage;
+        for(int i = view.visible.nextSetBit(0); i >= 0 && lines.size() <= entriesPerPage;
+            i = view.visible.nextSetBit(i + 1)) {
+            if(skip > 0) {
+                skip--;
+            }
+            else {
+                lines.add(entries[i].getUsage());
+            }
+        }
+
+        Component page = Component.join(Component.newline(), lines);
+        return view.locale == null ? page : GlobalTranslator.render(page, view.locale);
+    }
+
+    private int pageCount(int entryCount) {
+        return (entryCount + entriesPerPage - 1) / entriesPerPage;
+    }
+
+    private static BitSet visibleTo(CommandForm<?>[] entries, CommandSender sender) {
+        BitSet visible = new BitSet(entries.length);
+
+        if(sender == null) {
+            visible.set(0, entries.length);
+        }
+        else {
+            for(int i = 0; i < entries.length; i++) {
+                CommandForm<?> form = entries[i];
+                if(form.getCommand().getManager().getPermissionCache().validate(sender, form.getPermissions())) {
+                    visible.set(i);
+                }
+            }
+        }
+
+        return visible;
+    }
+
+    private static Locale localeOf(CommandSender sender) {
+        return sender instanceof Player ? Translator.parseLocale(((Player)sender).getLocale()) : null;
     }
 }
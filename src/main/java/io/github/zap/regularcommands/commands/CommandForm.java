@@ -2,9 +2,11 @@ package io.github.zap.regularcommands.commands;
 
 import io.github.zap.regularcommands.completer.ArgumentCompleter;
 import io.github.zap.regularcommands.converter.ArgumentConverter;
+import io.github.zap.regularcommands.converter.ArgumentType;
 import io.github.zap.regularcommands.converter.ConversionResult;
 import io.github.zap.regularcommands.converter.MatchResult;
 import io.github.zap.regularcommands.converter.Parameter;
+import io.github.zap.regularcommands.converter.PrimitiveArgumentConverter;
 import io.github.zap.regularcommands.util.ArrayUtils;
 import io.github.zap.regularcommands.util.Completers;
 import io.github.zap.regularcommands.validator.CommandValidator;
@@ -37,6 +39,13 @@ public abstract class CommandForm<T> implements Iterable<Parameter> {
         }
     }
 
+    static final int NO_MATCH = 0;
+    static final int MATCHED = 1;
+    static final int CONVERSION_FAILED = 2;
+
+    private static final ConversionResult<Object[]> EMPTY_CONVERSION = ConversionResult.of(true,
+            ArrayUtils.EMPTY_OBJECT_ARRAY, null);
+
     private final RegularCommand command;
     private final Component usage;
     private final Parameter[] parameters;
@@ -45,6 +54,11 @@ public abstract class CommandForm<T> implements Iterable<Parameter> {
 
     private final boolean vararg;
     private final boolean optional;
+    private final boolean typed;
+
+    //immutable failure results, shared to avoid allocating on every failed match
+    private final MatchResult noMatch = new MatchResult(this, true, false, null);
+    private final MatchResult noPermission = new MatchResult(this, false, false, null);
 
     /**
      * Creates a CommandForm.
@@ -106,6 +120,7 @@ public abstract class CommandForm<T> implements Iterable<Parameter> {
         requiredLength = reqLen; //length of all non-optional, non-vararg parameters
         this.vararg = vararg;
         this.optional = optional;
+        this.typed = overridesTypedExecute(getClass());
     }
 
     /**
@@ -147,68 +162,178 @@ public abstract class CommandForm<T> implements Iterable<Parameter> {
      */
     public boolean isVararg() { return vararg; }
 
+    /**
+     * Returns the number of parameters that must always be supplied, which excludes optional and vararg parameters.
+     * @return The number of required parameters
+     */
+    public int getRequiredLength() { return requiredLength; }
+
     /**
      * Attempts to match the provided argument array with this CommandForm.
      * @param args The complete input argument array
      * @return A MatchResult argument containing information about the match attempt
      */
     public @NotNull MatchResult matches(String[] args) {
-        if(args.length == 0) { //optimization for zero-length parameters
-            boolean matches = parameters.length == 0;
-            return new MatchResult(this, true, matches, matches ? ConversionResult.of(true,
-                    ArrayUtils.EMPTY_OBJECT_ARRAY, null) : null);
+        DispatchScratch scratch = DispatchScratch.acquire();
+
+        try {
+            Arguments result = new Arguments(convertedLength(args.length));
+            scratch.line.wrap(args);
+
+            switch (match(scratch.line, result, scratch)) {
+                case MATCHED:
+                    return new MatchResult(this, true, true, args.length == 0 ? EMPTY_CONVERSION :
+                            ConversionResult.of(true, result.toArray(), null));
+                case CONVERSION_FAILED:
+                    return new MatchResult(this, true, true, ConversionResult.of(false, null,
+                            scratch.conversionError));
+                case NO_MATCH:
+                default:
+                    return noMatch;
+            }
+        }
+        finally {
+            scratch.release();
         }
+    }
 
-        //optimization, don't bother testing if we are above or below the required length for this form
-        if(args.length < requiredLength || args.length > parameters.length && !vararg) {
-            return new MatchResult(this, true, false, null);
+    /**
+     * Returns true if this form overrides {@link #execute(Context, Arguments, Object)}, and so is written against
+     * Arguments. CommandManager only reuses its dispatch Context for such forms; forms written against Object[]
+     * arguments may retain their context, so they are given a new one.
+     * @return true if this form overrides the Arguments overload of execute, false otherwise
+     */
+    boolean isTyped() {
+        return typed;
+    }
+
+    /* true if the class overrides the Arguments overload of execute, rather than inheriting CommandForm's default */
+    private static boolean overridesTypedExecute(Class<?> type) {
+        try {
+            return type.getMethod("execute", Context.class, Arguments.class, Object.class).getDeclaringClass() !=
+                    CommandForm.class;
+        }
+        catch (NoSuchMethodException exception) {
+            return false;
         }
+    }
 
-        int iters = Math.max(args.length, parameters.length);
-        Object[] result = new Object[iters];
+    /**
+     * Gets the length of the converted argument array produced when matching the given number of arguments.
+     * @param argumentCount The number of input arguments
+     * @return The length of the converted argument array
+     */
+    int convertedLength(int argumentCount) {
+        return argumentCount == 0 ? 0 : Math.max(argumentCount, parameters.length);
+    }
+
+    /**
+     * Attempts to match the provided arguments with this CommandForm, without allocating a MatchResult. Arguments are
+     * only copied out of the command line when they are converted or stored in the output. Primitive converters and
+     * types write their values directly into primitive slots, so they are not boxed.
+     * @param line The complete input arguments
+     * @param out The arguments that converted values are written to, whose size must be convertedLength(line.size())
+     * @param scratch The scratch area, which receives the error message if conversion fails
+     * @return NO_MATCH, MATCHED, or CONVERSION_FAILED
+     */
+    int match(CommandLine line, Arguments out, DispatchScratch scratch) {
+        int argumentCount = line.size();
 
-        for(int i = 0; i < iters; i++)
+        if(argumentCount == 0) { //optimization for zero-length parameters
+            return parameters.length == 0 ? MATCHED : NO_MATCH;
+        }
+
+        //optimization, don't bother testing if we are above or below the required length for this form
+        if(argumentCount < requiredLength || argumentCount > parameters.length && !vararg) {
+            return NO_MATCH;
+        }
+
+        for(int i = 0; i < out.size(); i++)
         {
             Parameter parameter = parameters[Math.min(i, parameters.length - 1)];
             Parameter.ParameterType parameterType = parameter.getType();
+            ArgumentType<?> argumentType = parameter.getArgumentType();
             String input;
 
-            if(i >= args.length) {
+            if(i >= argumentCount) {
                 if(parameterType == Parameter.ParameterType.OPTIONAL) {
                     input = parameter.getDefaultValue(); //parameter is optional and argument is not supplied
                 }
                 else {
                     input = StringUtils.EMPTY; //parameter must be vararg but user didn't supply any arguments
                 }
+
+                if(argumentType == null && matchFails(input, parameter)) {
+                    return NO_MATCH;
+                }
             }
             else {
-                input = args[i]; //take user argument when possible
+                //match against the command line first, so arguments are only copied once they are known to match
+                if(argumentType == null && matchFails(line.sequence(i), parameter)) {
+                    return NO_MATCH;
+                }
+
+                input = line.get(i); //take user argument when possible
             }
 
-            if(matchFails(input, parameter)) {
-                return new MatchResult(this, true, false, null);
+            if(argumentType != null) { //typed parameters match and convert in one step
+                if(argumentType instanceof PrimitiveArgumentConverter) {
+                    if(((PrimitiveArgumentConverter<?>)argumentType).convertInto(this, input, out, i)) {
+                        continue;
+                    }
+                }
+                else {
+                    Object value = argumentType.parse(input);
+
+                    if(value != null) {
+                        out.set(i, value);
+                        continue;
+                    }
+                }
+
+                if(argumentType.matches(input)) { //right shape, but couldn't be converted
+                    scratch.conversionError = argumentType.errorMessage(input);
+                    return CONVERSION_FAILED;
+                }
+
+                return NO_MATCH;
             }
 
             ArgumentConverter<?> converter = parameter.getConverter();
-            ConversionResult<?> conversionResult;
 
             if(converter == null) {
-                conversionResult = ConversionResult.of(true, input, null);
-            }
-            else {
-                conversionResult = parameter.getConverter().convert(this, input);
+                out.set(i, input);
             }
+            else if(converter instanceof PrimitiveArgumentConverter) {
+                PrimitiveArgumentConverter<?> primitiveConverter = (PrimitiveArgumentConverter<?>)converter;
 
-            if(conversionResult.isValid()) { //successful conversion
-                result[i] = conversionResult.getConversion();
+                if(!primitiveConverter.convertInto(this, input, out, i)) {
+                    scratch.conversionError = primitiveConverter.errorMessage(input);
+                    return CONVERSION_FAILED;
+                }
             }
-            else { //failed conversion
-                return new MatchResult(this, true, true, ConversionResult.of(false,
-                        null, conversionResult.getErrorMessage()));
+            else {
+                ConversionResult<?> conversionResult = converter.convert(this, input);
+
+                if(conversionResult.isValid()) { //successful conversion
+                    out.set(i, conversionResult.getConversion());
+                }
+                else { //failed conversion
+                    scratch.conversionError = conversionResult.getErrorMessage();
+                    return CONVERSION_FAILED;
+                }
             }
         }
 
-        return new MatchResult(this, true,true, ConversionResult.of(true, result, null));
+        return MATCHED;
+    }
+
+    /**
+     * Returns the shared MatchResult used to report that the sender lacks permission to execute this form.
+     * @return The no-permission MatchResult for this form
+     */
+    @NotNull MatchResult noPermission() {
+        return noPermission;
     }
 
     /**
@@ -242,13 +367,8 @@ public abstract class CommandForm<T> implements Iterable<Parameter> {
         return i;
     }
 
-    private boolean matchFails(String argument, Parameter parameter) {
-        if(parameter.getType() == Parameter.ParameterType.SIMPLE) {
-            return !parameter.getMatch().equals(argument);
-        }
-        else {
-            return !parameter.getPattern().matcher(argument).matches();
-        }
+    private boolean matchFails(CharSequence argument, Parameter parameter) {
+        return !parameter.getMatcher().matches(argument);
     }
 
     /**
@@ -295,17 +415,57 @@ public abstract class CommandForm<T> implements Iterable<Parameter> {
     /**
      * Gets the validator used to perform additional verification on the command parameters, based off of the context
      * or the state of any user-defined objects. This step will always be performed AFTER argument conversion; thus,
-     * arguments will contain converted values.
+     * arguments will contain converted values. The Arguments instance is reused by CommandManager once the command
+     * finishes, so it should not be retained. If this form overrides {@link #execute(Context, Arguments, Object)}, the
+     * context is reused as well.
+     *
+     * This is the method CommandManager calls. By default, it passes the arguments' array view to
+     * {@link #getValidator(Context, Object[])}, which boxes any primitive arguments. The array is created for each
+     * command, so forms written against Object[] arguments may retain it and their context; forms that read their
+     * arguments through {@link Arguments} should override this method and execute(Context, Arguments, Object) instead.
+     * @param context The current context
+     * @param arguments The converted values, whose types correspond to the output of any converters defined within
+     *                  the parameters array
+     * @return The validator used to determine if the command should execute
+     */
+    public @Nullable CommandValidator<T, ?> getValidator(Context context, Arguments arguments) {
+        return getValidator(context, arguments.toArray());
+    }
+
+    /**
+     * Gets the validator used to perform additional verification on the command parameters, given the converted
+     * arguments as an array. See {@link #getValidator(Context, Arguments)} for details. By default, this returns null.
      * @param context The current context
      * @param arguments An array of converted values, whose types correspond to the output of any converters defined
      *                  within the parameters array
      * @return The validator used to determine if the command should execute
      */
-    public abstract @Nullable CommandValidator<T, ?> getValidator(Context context, Object[] arguments);
+    public @Nullable CommandValidator<T, ?> getValidator(Context context, Object[] arguments) {
+        return null;
+    }
+
+    /**
+     * Runs the command after the conversion and validation steps have been performed. The arguments passed to this
+     * method will always be the same as those passed to getValidator. As with getValidator, the Arguments instance is
+     * only valid until this method returns.
+     *
+     * This is the method CommandManager calls. By default, it passes the arguments' array view to
+     * {@link #execute(Context, Object[], Object)}; this is the same array that was passed to
+     * {@link #getValidator(Context, Object[])}, and it may be retained.
+     * @param context The current context
+     * @param arguments The converted values, whose types correspond to any converters defined within the parameters
+     *                  array
+     * @param data A data object, which if non-null was generated by this form's validator
+     * @return A message that will be displayed to the player, and formatted if getStylizer() doesn't return null
+     */
+    public @Nullable Component execute(Context context, Arguments arguments, T data) {
+        return execute(context, arguments.toArray(), data);
+    }
 
     /**
-     * Runs the command after the conversion and validation steps have been performed. The Object[] array passed to
-     * this method will always be the same as those passed to getValidator.
+     * Runs the command, given the converted arguments as an array. See {@link #execute(Context, Arguments, Object)}
+     * for details. Forms that override execute(Context, Arguments, Object) may implement this method by delegating to
+     * it, using {@link Arguments#of(Object...)}.
      * @param context The current context
      * @param arguments An array of converted values, whose types correspond to any converters defined within the
      *                  parameters array
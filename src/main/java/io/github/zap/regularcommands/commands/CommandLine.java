@@ -0,0 +1,250 @@
+package io.github.zap.regularcommands.commands;
+
+import io.github.zap.regularcommands.util.ArrayUtils;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * The arguments of a command, stored as spans over the raw command line. Tokens are only copied into Strings when
+ * something needs them as a String (a converter, or the converted argument array), so matching a long argument against
+ * a {@link io.github.zap.regularcommands.converter.ArgumentMatcher} does not copy it.
+ *
+ * The command line is split on every space, as Bukkit does, so consecutive spaces produce empty arguments. An argument
+ * that begins with a double quote continues until the next double quote that is followed by a space or the end of the
+ * line, and may contain spaces; the enclosing quotes are not part of the argument. Anywhere in the line, \" produces a
+ * literal quote and \\ a literal backslash; other backslashes are kept as-is. If a quoted argument is never closed, the
+ * quote is treated literally and the rest of the line is split normally.
+ *
+ * CommandLines are mutable and reused by the dispatch scratch area, so they should not be retained.
+ */
+final class CommandLine {
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+    private static final char SEPARATOR = ' ';
+
+    private CharSequence source;
+    private String[] wrapped;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+
+    //materialized tokens; escaped tokens are always materialized, since they do not correspond to a span
+    private String[] strings = new String[8];
+    private int size;
+
+    /**
+     * Uses the given argument array directly, without any tokenization.
+     * @param args The argument array
+     */
+    void wrap(String[] args) {
+        clear();
+        wrapped = args;
+        size = args.length;
+    }
+
+    /**
+     * Tokenizes an argument array produced by Bukkit, which has already been split on spaces. If no argument contains
+     * a quote or backslash, the array is used directly; otherwise, it is joined and tokenized.
+     * @param args The argument array
+     */
+    void parse(String[] args) {
+        for(String arg : args) {
+            if(arg.indexOf(QUOTE) != -1 || arg.indexOf(ESCAPE) != -1) {
+                tokenize(String.join(" ", args));
+                return;
+            }
+        }
+
+        wrap(args);
+    }
+
+    /**
+     * Tokenizes a raw command line, excluding the command label. An empty line produces no arguments.
+     * @param line The command line
+     */
+    void tokenize(CharSequence line) {
+        clear();
+        source = line;
+
+        int length = line.length();
+        if(length == 0) {
+            return;
+        }
+
+        int position = 0;
+        boolean quotes = true;
+
+        while(true) {
+            int end = -1;
+
+            if(quotes && position < length && line.charAt(position) == QUOTE) {
+                end = readQuoted(line, position);
+                quotes = end != -1; //unterminated quote, so split the rest of the line normally
+            }
+
+            if(end == -1) {
+                end = readPlain(line, position);
+            }
+
+            if(end == length) {
+                return;
+            }
+
+            position = end + 1; //skip the separator
+        }
+    }
+
+    private int readQuoted(CharSequence line, int start) {
+        int length = line.length();
+        boolean escaped = false;
+
+        for(int i = start + 1; i < length; i++) {
+            char c = line.charAt(i);
+
+            if(c == ESCAPE && isEscapable(line, i + 1)) {
+                escaped = true;
+                i++;
+            }
+            else if(c == QUOTE && (i + 1 == length || line.charAt(i + 1) == SEPARATOR)) {
+                add(line, start + 1, i, escaped);
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    private int readPlain(CharSequence line, int start) {
+        int length = line.length();
+        boolean escaped = false;
+        int i = start;
+
+        for(; i < length; i++) {
+            char c = line.charAt(i);
+
+            if(c == SEPARATOR) {
+                break;
+            }
+            else if(c == ESCAPE && isEscapable(line, i + 1)) {
+                escaped = true;
+                i++;
+            }
+        }
+
+        add(line, start, i, escaped);
+        return i;
+    }
+
+    private static boolean isEscapable(CharSequence line, int index) {
+        if(index < line.length()) {
+            char c = line.charAt(index);
+            return c == QUOTE || c == ESCAPE;
+        }
+
+        return false;
+    }
+
+    private void add(CharSequence line, int start, int end, boolean escaped) {
+        if(size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            strings = Arrays.copyOf(strings, capacity);
+        }
+
+        starts[size] = start;
+        ends[size] = end;
+        strings[size] = escaped ? unescape(line, start, end) : null;
+        size++;
+    }
+
+    private static String unescape(CharSequence line, int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+
+        for(int i = start; i < end; i++) {
+            char c = line.charAt(i);
+
+            if(c == ESCAPE && i + 1 < end && isEscapable(line, i + 1)) {
+                c = line.charAt(++i);
+            }
+
+            builder.append(c);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Gets the number of arguments.
+     * @return The number of arguments
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets an argument as a CharSequence, which does not copy it.
+     * @param index The index of the argument
+     * @return The argument
+     */
+    CharSequence sequence(int index) {
+        if(wrapped != null) {
+            return wrapped[index];
+        }
+
+        String string = strings[index];
+        return string != null ? string : CharBuffer.wrap(source, starts[index], ends[index]);
+    }
+
+    /**
+     * Gets an argument as a String, copying it out of the command line the first time it is requested.
+     * @param index The index of the argument
+     * @return The argument
+     */
+    String get(int index) {
+        if(wrapped != null) {
+            return wrapped[index];
+        }
+
+        String string = strings[index];
+
+        if(string == null) {
+            string = strings[index] = source.subSequence(starts[index], ends[index]).toString();
+        }
+
+        return string;
+    }
+
+    /**
+     * Gets every argument as a String. If this CommandLine wraps an array, that array is returned.
+     * @return An array containing every argument
+     */
+    String[] toArray() {
+        if(wrapped != null) {
+            return wrapped;
+        }
+        else if(size == 0) {
+            return ArrayUtils.EMPTY_STRING_ARRAY;
+        }
+
+        String[] array = new String[size];
+        for(int i = 0; i < size; i++) {
+            array[i] = get(i);
+        }
+
+        return array;
+    }
+
+    /**
+     * Clears this CommandLine, dropping its reference to the command line and any materialized arguments.
+     */
+    void clear() {
+        if(wrapped == null) {
+            Arrays.fill(strings, 0, size, null);
+        }
+
+        source = null;
+        wrapped = null;
+        size = 0;
+    }
+}
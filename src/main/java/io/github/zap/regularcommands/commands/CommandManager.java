@@ -1,31 +1,75 @@
 package io.github.zap.regularcommands.commands;
 
-import io.github.zap.regularcommands.converter.ConversionResult;
-import io.github.zap.regularcommands.converter.MatchResult;
-import io.github.zap.regularcommands.util.ArrayUtils;
+import io.github.zap.regularcommands.translation.LanguageFileSource;
+import io.github.zap.regularcommands.translation.LayeredTranslator;
+import io.github.zap.regularcommands.translation.MessageCache;
+import io.github.zap.regularcommands.translation.MessageTemplate;
+import io.github.zap.regularcommands.translation.TemplateRegistry;
 import io.github.zap.regularcommands.validator.CommandValidator;
 import io.github.zap.regularcommands.validator.ValidationResult;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.translation.GlobalTranslator;
 import net.kyori.adventure.translation.TranslationRegistry;
-import org.apache.commons.lang.StringUtils;
 import org.bukkit.command.*;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
-import java.text.MessageFormat;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * This class keeps track of all registered commands and includes some utility functions.
+ *
+ * CommandManager is thread-safe. Commands and forms may be registered from any thread, and onCommand and onTabComplete
+ * may be called concurrently from any number of threads (for example, console dispatch or asynchronous completion).
+ * Argument parsing and matching keep all of their working state per thread and per call, and are reentrant, so a form
+ * may dispatch another command from within execute. The manager makes no guarantees about user code, however: forms,
+ * validators, converters and completers that are invoked off the main thread must be thread-safe themselves, and must
+ * not call Bukkit API that is restricted to the main thread.
  */
 public class CommandManager implements CommandExecutor, TabCompleter {
     private static final Key TRANSLATION_REGISTRY_KEY
             = Key.key("io.github.zap", "regularcommands.translation.registry");
+    private static final Key TEMPLATE_REGISTRY_KEY
+            = Key.key("io.github.zap", "regularcommands.translation.templates");
+    private static final Key TRANSLATOR_KEY
+            = Key.key("io.github.zap", "regularcommands.translation");
 
     private static final Locale DEFAULT_LOCALE = Locale.US;
+    private static final int DEFAULT_MESSAGE_CACHE_SIZE = 512;
+
+    //components are immutable, so fixed messages can be shared between every sender
+    private static final Component NO_PERMISSION_MESSAGE = Component.translatable(DefaultKeys.ERROR_NO_PERMISSION.key());
+    private static final Component NO_FORMS_MESSAGE = Component.translatable(DefaultKeys.ERROR_NO_FORMS.key());
+    private static final Component ASYNC_ERROR_MESSAGE = Component.translatable(DefaultKeys.ERROR_ASYNC_EXECUTION.key());
+
+    /*
+    the permission of a PluginCommand, resolved on the main thread when the command is registered so that it can be
+    tested against cached grants. PluginCommands accept any one of their ';'-separated permissions
+     */
+    private static final class CommandPermission {
+        private final PluginCommand command;
+        private final String permission; //the PluginCommand's permission when it was resolved
+        private final PermissionData[] alternatives; //empty if the command has no permission
+
+        private CommandPermission(PluginCommand command, String permission, PermissionData[] alternatives) {
+            this.command = command;
+            this.permission = permission;
+            this.alternatives = alternatives;
+        }
+    }
 
     private class SimpleCommand extends RegularCommand {
         private SimpleCommand(String name) {
@@ -34,11 +78,24 @@ public class CommandManager implements CommandExecutor, TabCompleter {
     }
 
     private final Plugin plugin;
+    private final GlobalTranslator translator;
     private final TranslationRegistry translationRegistry;
+    private final TemplateRegistry templateRegistry;
+    private final LayeredTranslator layeredTranslator;
     private final Logger logger;
     private final Map<String, RegularCommand> commands;
-
-    private final StringBuilder BUFFER = new StringBuilder(); //used for internal string parsing
+    private final Map<String, PluginCommand> labels; //lowercase labels the server dispatches to registered commands
+    private final Map<String, CommandPermission> commandPermissions; //keyed by command name
+    private final PermissionCache permissionCache;
+    private final MessageCache messageCache;
+    private final Map<UUID, CompletionSession> sessions; //each player's most recent completion
+    private boolean asyncCompletion;
+    private boolean listenerRegistered;
+
+    private volatile CompletionCache completionCache;
+    private volatile int completionLimit = Integer.MAX_VALUE;
+    private volatile Executor asyncExecutor;
+    private ExecutorService defaultAsyncExecutor; //created on demand, guarded by this
 
     /**
      * Creates a new CommandManager and associates it with the specified plugin.
@@ -46,25 +103,61 @@ public class CommandManager implements CommandExecutor, TabCompleter {
      */
     public CommandManager(@NotNull Plugin plugin, @NotNull GlobalTranslator translator) {
         this.plugin = Objects.requireNonNull(plugin, "plugin cannot be null");
+        this.translator = Objects.requireNonNull(translator, "translator cannot be null");
         this.translationRegistry = TranslationRegistry.create(TRANSLATION_REGISTRY_KEY);
-        translationRegistry.defaultLocale(DEFAULT_LOCALE);
-        translator.addSource(translationRegistry);
+        translationRegistry.defaultLocale(Locale.ROOT); //the layered translator falls back to DEFAULT_LOCALE itself
+        this.templateRegistry = new TemplateRegistry(TEMPLATE_REGISTRY_KEY, DEFAULT_LOCALE);
+        this.layeredTranslator = new LayeredTranslator(TRANSLATOR_KEY, DEFAULT_LOCALE, translationRegistry,
+                templateRegistry);
+        translator.addSource(layeredTranslator);
         logger = plugin.getLogger();
-        commands = new HashMap<>();
+        commands = new ConcurrentHashMap<>();
+        labels = new ConcurrentHashMap<>();
+        commandPermissions = new ConcurrentHashMap<>();
+        permissionCache = new PermissionCache();
+        messageCache = new MessageCache(DEFAULT_MESSAGE_CACHE_SIZE, layeredTranslator);
+        sessions = new ConcurrentHashMap<>();
     }
 
     /**
-     * Registers the default translations for all keys stored in {@link DefaultKeys}. If translations have already been
-     * registered for the default locale, the previous mappings will not be overwritten. This is mostly a convenience
-     * method; it is preferred that implementations load their own mappings from a language file or other data source.
+     * Registers the default translations for all keys stored in {@link DefaultKeys} as templates in the
+     * {@link TemplateRegistry}. If templates have already been registered for the default locale, the previous mappings
+     * will not be overwritten, and translations registered in {@link #getTranslationRegistry()} take precedence over
+     * the defaults in every locale. This is mostly a convenience method; it is preferred that implementations load
+     * their own mappings from a language file (see {@link #addLanguageFiles(LanguageFileSource)}) or other data source.
+     *
+     * Messages without arguments are pre-rendered for the default locale.
      */
     public void registerDefaultTranslations() {
         for(DefaultKeys key : DefaultKeys.values()) {
             try {
-                translationRegistry.register(key.key(), DEFAULT_LOCALE, new MessageFormat(key.getPattern(), DEFAULT_LOCALE));
+                templateRegistry.register(key.key(), DEFAULT_LOCALE, MessageTemplate.compile(key.getPattern()));
             }
             catch (IllegalArgumentException ignored) {}
         }
+
+        pinDefaultMessages();
+    }
+
+    /**
+     * Adds translations from language files, which take precedence over the translations in
+     * {@link #getTranslationRegistry()}, the default translations and any previously added language files. The files
+     * are used both by the GlobalTranslator and by this manager's MessageCache, which renders messages from their
+     * templates directly. Language files are only read once a player using their locale needs them.
+     * @param source The language files to add
+     */
+    public void addLanguageFiles(@NotNull LanguageFileSource source) {
+        layeredTranslator.addLanguageFiles(source);
+        pinDefaultMessages();
+    }
+
+    /* pre-renders messages without arguments for the default locale */
+    private void pinDefaultMessages() {
+        for(DefaultKeys key : DefaultKeys.values()) {
+            if(key.getPattern().indexOf('{') == -1) {
+                messageCache.pin(Component.translatable(key.key()), DEFAULT_LOCALE);
+            }
+        }
     }
 
     /**
@@ -74,18 +167,82 @@ public class CommandManager implements CommandExecutor, TabCompleter {
     public void registerCommand(@NotNull RegularCommand command) {
         String name = Objects.requireNonNull(command, "command cannot be null").getName();
 
-        if(!commands.containsKey(name)) {
-            commands.put(name, command);
+        if(commands.putIfAbsent(name, command) == null) {
+            registerPlayerListener();
             PluginCommand pluginCommand = Objects.requireNonNull(plugin.getServer().getPluginCommand(command.getName()),
                     "command must also be defined in plugin.yml");
             pluginCommand.setExecutor(this);
             pluginCommand.setTabCompleter(this);
+
+            commandPermissions.put(name, resolvePermission(pluginCommand));
+            addLabel(pluginCommand.getName(), pluginCommand);
+            for(String alias : pluginCommand.getAliases()) {
+                addLabel(alias, pluginCommand);
+            }
         }
         else {
             throw new IllegalArgumentException("a command with that name has already been registered");
         }
     }
 
+    /*
+    the fallback label, prefixed by the plugin's name, always belongs to the command; the bare label only does if the
+    server registered the command under it, rather than leaving it to a command of another plugin
+     */
+    private void addLabel(String label, PluginCommand pluginCommand) {
+        String lowercase = label.toLowerCase(Locale.ROOT);
+        labels.put(plugin.getName().toLowerCase(Locale.ROOT) + ":" + lowercase, pluginCommand);
+
+        if(plugin.getServer().getCommandMap().getCommand(lowercase) == pluginCommand) {
+            labels.put(lowercase, pluginCommand);
+        }
+    }
+
+    /* resolves the permissions of a PluginCommand, using the registered Permission of each where there is one */
+    private CommandPermission resolvePermission(PluginCommand pluginCommand) {
+        String permission = pluginCommand.getPermission();
+
+        if(permission == null || permission.isEmpty()) {
+            return new CommandPermission(pluginCommand, permission, new PermissionData[0]);
+        }
+
+        String[] names = permission.split(";");
+        PermissionData[] alternatives = new PermissionData[names.length];
+
+        for(int i = 0; i < names.length; i++) {
+            //unregistered permissions default to the same value as hasPermission(String) uses
+            Permission registered = plugin.getServer().getPluginManager().getPermission(names[i]);
+            alternatives[i] = new PermissionData(Collections.singleton(registered == null ? new Permission(names[i]) :
+                    registered));
+            permissionCache.prepare(alternatives[i]);
+        }
+
+        return new CommandPermission(pluginCommand, permission, alternatives);
+    }
+
+    /*
+    tests cached grants against a command's own permission, as PluginCommand.testPermissionSilent does. false if the
+    permission has changed since it was resolved
+     */
+    private boolean allowsCommand(RegularCommand command, PermissionInterner.Grants grants) {
+        CommandPermission permission = commandPermissions.get(command.getName());
+
+        if(permission == null || !Objects.equals(permission.permission, permission.command.getPermission())) {
+            return false;
+        }
+        else if(permission.alternatives.length == 0) {
+            return true;
+        }
+
+        for(PermissionData alternative : permission.alternatives) {
+            if(permissionCache.satisfies(grants, alternative)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Returns the RegularCommand with the specified name.
      * @param name The name of the command
@@ -95,6 +252,118 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         return commands.get(name);
     }
 
+    /*
+    registered on demand rather than in the constructor, since the plugin might not be enabled yet when the manager is
+    created
+     */
+    private synchronized void registerPlayerListener() {
+        if(!listenerRegistered) {
+            plugin.getServer().getPluginManager().registerEvents(new PlayerListener(this), plugin);
+            listenerRegistered = true;
+        }
+    }
+
+    /**
+     * Returns the PermissionCache used to test senders against the PermissionData of this manager's forms.
+     * @return The PermissionCache
+     */
+    public @NotNull PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
+    /**
+     * Discards the state kept for a player, such as their completion session. Called when the player leaves.
+     * @param id The UUID of the player
+     */
+    void forgetPlayer(UUID id) {
+        permissionCache.invalidate(id);
+        sessions.remove(id);
+    }
+
+    /**
+     * Looks up the PluginCommand of a registered command by a label the server would dispatch to it: its name or one
+     * of its aliases prefixed by the plugin's name and a colon, or the name or alias alone if no other plugin's command
+     * held it when the command was registered.
+     * @param label The label, which is case-insensitive
+     * @return The PluginCommand, or null if the label does not belong to a command registered with this manager
+     */
+    PluginCommand getPluginCommand(String label) {
+        return labels.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Enables asynchronous tab completion, which answers completion requests for this manager's commands from Paper's
+     * AsyncTabCompleteEvent instead of on the main thread. A request is only completed asynchronously if every
+     * completer that would contribute to it has {@link io.github.zap.regularcommands.completer.CompleterTrait#ASYNC_SAFE};
+     * otherwise, it falls back to being completed on the main thread. Calling this more than once has no effect.
+     * @return True if asynchronous completion is enabled, false if the server does not support it
+     */
+    public synchronized boolean enableAsyncCompletion() {
+        if(!asyncCompletion) {
+            try {
+                Class.forName("com.destroystokyo.paper.event.server.AsyncTabCompleteEvent");
+            }
+            catch (ClassNotFoundException e) {
+                logger.warning("Asynchronous tab completion requires Paper; completions will be performed on the " +
+                        "main thread.");
+                return false;
+            }
+
+            plugin.getServer().getPluginManager().registerEvents(new AsyncCompletionListener(this), plugin);
+            asyncCompletion = true;
+        }
+
+        return true;
+    }
+
+    /**
+     * Sets the Executor used to run {@link AsyncCommandForm}s. The executor is not shut down by this manager.
+     * @param executor The executor to use
+     */
+    public void setAsyncExecutor(@NotNull Executor executor) {
+        asyncExecutor = Objects.requireNonNull(executor, "executor cannot be null");
+    }
+
+    /**
+     * Gets the Executor used to run {@link AsyncCommandForm}s. If none has been set, a default executor is created. On
+     * Java 21 and later, the default executor runs each form on its own virtual thread; on earlier versions, it uses a
+     * fixed number of daemon threads.
+     * @return The async executor
+     */
+    public @NotNull Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+
+        if(executor == null) {
+            synchronized (this) {
+                executor = asyncExecutor;
+
+                if(executor == null) {
+                    asyncExecutor = executor = defaultAsyncExecutor = DispatchExecutors.create(plugin.getName() +
+                            "-command-async-");
+                }
+            }
+        }
+
+        return executor;
+    }
+
+    /**
+     * Shuts down the default async executor, if one was created. Async forms that are already running are allowed to
+     * finish, but their results are discarded if the plugin has been disabled. This should be called when the plugin
+     * is disabled.
+     */
+    public synchronized void shutdown() {
+        if(defaultAsyncExecutor != null) {
+            defaultAsyncExecutor.shutdown();
+
+            if(asyncExecutor == defaultAsyncExecutor) {
+                asyncExecutor = null;
+            }
+
+            defaultAsyncExecutor = null;
+        }
+    }
+
     /**
      * Returns if a RegularCommand with the given name has been registered.
      * @param name The name of the command
@@ -113,12 +382,36 @@ public class CommandManager implements CommandExecutor, TabCompleter {
     }
 
     /**
-     * Returns the TranslationRegistry instance used by this CommandManager.
+     * Returns the TranslationRegistry instance used by this CommandManager. Its translations take precedence over the
+     * templates in {@link #getTemplateRegistry()}, including the default translations. Its default locale is
+     * {@link Locale#ROOT}, since the manager falls back to en_US itself, after checking every source for a translation
+     * in the requested locale. The MessageCache cannot tell when this registry changes, so after changing translations,
+     * call {@link MessageCache#invalidateAll()} on {@link #getMessageCache()} so stale renderings are not sent.
      */
     public @NotNull TranslationRegistry getTranslationRegistry() {
         return translationRegistry;
     }
 
+    /**
+     * Returns the TemplateRegistry used by this CommandManager, which holds the default translations. Messages sent by
+     * the manager are rendered from its templates directly when possible, so it is the preferred place to register
+     * translations, although translations in {@link #getTranslationRegistry()} take precedence over it. Messages
+     * rendered by the MessageCache are discarded automatically when templates are registered or unregistered.
+     * @return The TemplateRegistry
+     */
+    public @NotNull TemplateRegistry getTemplateRegistry() {
+        return templateRegistry;
+    }
+
+    /**
+     * Returns the cache of rendered messages used by this CommandManager. Messages sent by the manager, such as errors
+     * and the output of forms, are rendered through this cache when they are simple enough to be cached.
+     * @return The MessageCache
+     */
+    public @NotNull MessageCache getMessageCache() {
+        return messageCache;
+    }
+
     /**
      * Returns the logger used by this instance, which is the same logger that is used by the bound JavaPlugin.
      * @return The associated Logger
@@ -142,32 +435,14 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         RegularCommand regularCommand = getCommand(command.getName());
 
         if(regularCommand != null) {
-            List<MatchResult> matches = regularCommand.getMatches(parse(args), commandSender); //get all matches
-
-            if(matches.size() > 0) {
-                for(MatchResult match : matches) { //loop all matches
-                    if(match.hasPermission()) { //check permissions match first
-                        ConversionResult<Object[]> conversionResult = match.getConversionResult();
-
-                        if(conversionResult.isValid()) { //conversion was a success
-                            CommandForm<?> form = match.getForm();
-                            Component output = validateAndExecute(form, commandSender, conversionResult.getConversion());
-
-                            if(output != null && !output.equals(Component.empty())) { //we have something to display
-                                commandSender.sendMessage(output);
-                            }
-                        }
-                        else { //conversion error
-                            commandSender.sendMessage(conversionResult.getErrorMessage());
-                        }
-                    }
-                    else { //sender does not have the required permissions
-                        commandSender.sendMessage(Component.translatable(DefaultKeys.ERROR_NO_PERMISSION.key()));
-                    }
-                }
+            DispatchScratch scratch = DispatchScratch.acquire();
+
+            try {
+                scratch.line.parse(args);
+                dispatch(regularCommand, commandSender, scratch.line, scratch);
             }
-            else { //no matching forms
-                commandSender.sendMessage(Component.translatable(DefaultKeys.ERROR_NO_FORMS.key()));
+            finally {
+                scratch.release();
             }
         }
         else {
@@ -179,8 +454,60 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         return true;
     }
 
-    private <T> Component validateAndExecute(CommandForm<T> form, CommandSender sender, Object[] args) {
-        Context context = new Context(form, sender);
+    /*
+    matches, converts and executes each candidate form in turn. all working state lives in the scratch area, so
+    failures and simple successes don't allocate
+     */
+    private void dispatch(RegularCommand regularCommand, CommandSender sender, CommandLine line,
+                          DispatchScratch scratch) {
+        FormTrie trie = regularCommand.getFormTrie();
+        FormCandidates candidates = scratch.candidates;
+        trie.collectMatches(line, candidates);
+        boolean anyMatches = false;
+
+        for(int i = 0; i < candidates.size(); i++) {
+            CommandForm<?> form = trie.get(candidates.get(i));
+
+            if(!permissionCache.validate(sender, form.getPermissions())) { //check permissions match first
+                send(sender, NO_PERMISSION_MESSAGE);
+                anyMatches = true;
+                continue;
+            }
+
+            Arguments arguments = scratch.arguments(form.convertedLength(line.size()));
+
+            try {
+                int status = form.match(line, arguments, scratch);
+
+                if(status == CommandForm.MATCHED) { //conversion was a success
+                    anyMatches = true;
+                    //forms written against Object[] arguments may retain their context, so only typed forms reuse it
+                    Context context = form.isTyped() ? scratch.context : new Context();
+                    Component output = validateAndExecute(form, sender, arguments, context);
+
+                    if(output != null && !output.equals(Component.empty())) { //we have something to display
+                        send(sender, output);
+                    }
+                }
+                else if(status == CommandForm.CONVERSION_FAILED) { //conversion error
+                    anyMatches = true;
+                    send(sender, scratch.conversionError);
+                    scratch.conversionError = null;
+                }
+            }
+            finally {
+                scratch.clear(arguments);
+            }
+        }
+
+        if(!anyMatches) { //no matching forms
+            send(sender, NO_FORMS_MESSAGE);
+        }
+    }
+
+    private <T> Component validateAndExecute(CommandForm<T> form, CommandSender sender, Arguments args,
+                                             Context context) {
+        context.set(form, sender);
         CommandValidator<T, ?> validator = form.getValidator(context, args);
 
         if(validator != null) {
@@ -190,7 +517,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 return form.execute(context, args, result.getData());
             }
             else {
-                sender.sendMessage(result.getErrorMessage());
+                send(sender, result.getErrorMessage());
             }
         }
         else {
@@ -200,6 +527,66 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         return null;
     }
 
+    /*
+    runs the asynchronous part of an AsyncCommandForm, after its validator has succeeded on the dispatching thread. the
+    context escapes this call, so it's copied out of the dispatch scratch area; arrays from toArray are never reused
+     */
+    <T> void executeAsync(AsyncCommandForm<T> form, CommandSender sender, Arguments arguments, T data) {
+        Context context = new Context(form, sender);
+        Object[] args = arguments.toArray();
+        UUID playerId = sender instanceof Player ? ((Player)sender).getUniqueId() : null;
+
+        try {
+            CompletableFuture.supplyAsync(() -> form.validateAsync(context, args, data), getAsyncExecutor())
+                    .thenCompose(Function.identity())
+                    .thenCompose(result -> result.isValid() ? form.executeAsync(context, args, result.getData()) :
+                            CompletableFuture.completedFuture(result.getErrorMessage()))
+                    .whenComplete((output, error) -> deliver(sender, playerId, output, error));
+        }
+        catch (RejectedExecutionException exception) {
+            deliver(sender, playerId, null, exception);
+        }
+    }
+
+    /* renders messages through the message cache, so repeated messages are not translated again */
+    private void send(CommandSender sender, Component message) {
+        sender.sendMessage(messageCache.render(sender, message));
+    }
+
+    /*
+    sends the result of an async form to its sender on the main thread. players are looked up again by UUID, so that
+    results for players who have logged out are discarded
+     */
+    private void deliver(CommandSender sender, UUID playerId, Component output, Throwable error) {
+        Component message = output;
+
+        if(error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            logger.log(Level.WARNING, "an asynchronous command form failed to execute", cause);
+            message = ASYNC_ERROR_MESSAGE;
+        }
+
+        if(message == null || message.equals(Component.empty()) || !plugin.isEnabled()) {
+            return;
+        }
+
+        Component finalMessage = message;
+        Runnable send = () -> {
+            CommandSender target = playerId == null ? sender : plugin.getServer().getPlayer(playerId);
+
+            if(target != null) {
+                send(target, finalMessage);
+            }
+        };
+
+        if(plugin.getServer().isPrimaryThread()) {
+            send.run();
+        }
+        else {
+            plugin.getServer().getScheduler().runTask(plugin, send);
+        }
+    }
+
     @Override
     public List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command,
                                       @NotNull String label, @NotNull String[] args) {
@@ -207,60 +594,157 @@ public class CommandManager implements CommandExecutor, TabCompleter {
             RegularCommand regularCommand = commands.get(command.getName());
 
             if(regularCommand != null) {
-                return regularCommand.getCompletions(commandSender, parse(args));
+                return complete(regularCommand, commandSender, args, false);
             }
         }
 
         return new ArrayList<>();
     }
 
-    private String[] parse(String[] args) {
-        BUFFER.setLength(0);
-
-        List<String> result = new ArrayList<>();
-        boolean quotation = false;
-        int lastOpeningQuoteResult = 0;
-        int lastOpeningQuoteArg = 0;
-        int resultIndex = 0;
-        int argIndex = 0;
-        for(String arg : args) {
-            if(quotation) {
-                BUFFER.append(' ');
-
-                if(arg.endsWith("\"")) {
-                    quotation = false;
-                    BUFFER.append(arg.length() == 1 ? StringUtils.EMPTY : arg.substring(0, arg.length() - 1));
-                    result.add(BUFFER.toString());
-                    BUFFER.setLength(0);
-                    resultIndex++;
-                }
-                else {
-                    BUFFER.append(arg);
+    /**
+     * Tokenizes and completes the given arguments, using the completion cache if it is enabled. If async is true, null
+     * is returned when the completion must be performed on the main thread instead. Off the main thread, permissions
+     * are only tested against the sender's cached grants, including the command's own permission, so only players
+     * with a fresh entry in the {@link PermissionCache} are completed asynchronously.
+     *
+     * Each player's most recent completion is kept as a {@link CompletionSession}, so that a request that only extends
+     * the last argument does not need to match the earlier arguments again. Like the completion cache, sessions rely
+     * on the {@link PermissionCache} to tell when a player's permissions have changed, and are not used if it is
+     * disabled.
+     */
+    List<String> complete(RegularCommand regularCommand, CommandSender sender, String[] args, boolean async) {
+        DispatchScratch scratch = DispatchScratch.acquire();
+
+        try {
+            scratch.line.parse(args);
+            String[] arguments = scratch.line.toArray();
+            FormTrie trie = regularCommand.getFormTrie();
+
+            CompletionCache cache = completionCache;
+            CompletionCache.Key key = null;
+            PermissionInterner.Grants grants = null;
+            CompletionSession session = null;
+
+            if(async) {
+                //the Permissible API can't be used off the main thread, so only cached grants are used
+                grants = sender instanceof Player ? permissionCache.cachedGrants(((Player)sender).getUniqueId()) : null;
+
+                if(grants == null || !allowsCommand(regularCommand, grants)) {
+                    return null;
                 }
             }
-            else {
-                if(arg.startsWith("\"")) {
-                    quotation = true;
-                    BUFFER.append(arg.length() == 1 ? StringUtils.EMPTY : arg.substring(1));
-                    lastOpeningQuoteResult = resultIndex;
-                    lastOpeningQuoteArg = argIndex;
+            else if(sender instanceof Player) {
+                grants = permissionCache.grants((Player)sender);
+            }
+
+            if(grants != null) {
+                if(cache != null) {
+                    key = new CompletionCache.Key(regularCommand.getName(), trie, arguments, grants);
+                    List<String> cached = cache.get(key);
+
+                    if(cached != null) {
+                        return new ArrayList<>(cached);
+                    }
                 }
-                else {
-                    result.add(arg);
-                    resultIndex++;
+
+                session = sessions.get(((Player)sender).getUniqueId());
+                if(session != null && !session.isExtendedBy(trie, grants, arguments)) {
+                    session = null;
                 }
             }
-            argIndex++;
-        }
 
-        if(BUFFER.length() > 0) {
-            if (result.size() > lastOpeningQuoteResult) {
-                result.subList(lastOpeningQuoteResult, result.size()).clear();
+            Completions completions = regularCommand.complete(trie, sender, arguments, async, grants, session);
+
+            if(grants != null && completions.list != null && !completions.truncated) {
+                sessions.put(((Player)sender).getUniqueId(), new CompletionSession(trie, grants, arguments,
+                        completions));
             }
 
-            result.addAll(Arrays.asList(args).subList(lastOpeningQuoteArg, args.length));
+            if(key != null && completions.cacheable) {
+                cache.put(key, completions.list);
+            }
+
+            return completions.list;
+        }
+        finally {
+            scratch.release();
+        }
+    }
+
+    /**
+     * Sets the maximum number of completions produced for a single tab completion request. Completers that implement
+     * {@link io.github.zap.regularcommands.completer.StreamingCompletionStep} stop producing completions once the
+     * limit is reached, and forms after that point are not completed. By default, there is no limit. Cached completion
+     * results are discarded, since they were produced with the old limit.
+     * @param completionLimit The maximum number of completions
+     */
+    public void setCompletionLimit(int completionLimit) {
+        if(completionLimit <= 0) {
+            throw new IllegalArgumentException("completionLimit must be > 0");
+        }
+
+        this.completionLimit = completionLimit;
+        invalidateCompletions();
+    }
+
+    /**
+     * Gets the maximum number of completions produced for a single tab completion request.
+     * @return The completion limit
+     */
+    public int getCompletionLimit() {
+        return completionLimit;
+    }
+
+    /**
+     * Enables caching of tab completion results. Results are only cached for players, and only if every completer that
+     * contributed to them is {@link io.github.zap.regularcommands.completer.CompleterTrait#CACHEABLE}. Players with the
+     * same permissions share cached results, which relies on the {@link PermissionCache}; if it is disabled, nothing
+     * is cached. Calling this again replaces the cache with an empty one.
+     * @param maximumSize The maximum number of results to keep; the least recently used result is evicted first
+     * @param expiry How long each result is kept for
+     */
+    public void enableCompletionCache(int maximumSize, @NotNull Duration expiry) {
+        Objects.requireNonNull(expiry, "expiry cannot be null");
+
+        if(maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be > 0");
+        }
+        else if(expiry.isNegative() || expiry.isZero()) {
+            throw new IllegalArgumentException("expiry must be positive");
+        }
+
+        completionCache = new CompletionCache(maximumSize, expiry.toNanos());
+    }
+
+    /**
+     * Disables caching of tab completion results, discarding any cached results.
+     */
+    public void disableCompletionCache() {
+        completionCache = null;
+    }
+
+    /**
+     * Discards cached completion results for the named command. This should be called when a cacheable completer's
+     * source of options changes. Results are discarded automatically when forms are added.
+     * @param commandName The name of the command
+     */
+    public void invalidateCompletions(@NotNull String commandName) {
+        Objects.requireNonNull(commandName, "commandName cannot be null");
+        CompletionCache cache = completionCache;
+
+        if(cache != null) {
+            cache.invalidate(commandName);
         }
+    }
+
+    /**
+     * Discards every cached completion result.
+     */
+    public void invalidateCompletions() {
+        CompletionCache cache = completionCache;
 
-        return result.toArray(ArrayUtils.EMPTY_STRING_ARRAY);
+        if(cache != null) {
+            cache.invalidateAll();
+        }
     }
 }
\ No newline at end of file
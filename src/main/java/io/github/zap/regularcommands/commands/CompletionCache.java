@@ -0,0 +1,122 @@
+package io.github.zap.regularcommands.commands;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of tab completion results. Entries are keyed by the command's current set of
+ * forms, the arguments being completed, and the sender's permission grants, so players with the same permissions
+ * typing the same prefix share an entry. Adding a form to a command changes its set of forms, so stale entries for
+ * that command are never returned again and are eventually evicted.
+ */
+final class CompletionCache {
+    static final class Key {
+        private final String command;
+        private final FormTrie forms;
+        private final String[] args;
+        private final PermissionInterner.Grants grants;
+        private final int hash;
+
+        Key(String command, FormTrie forms, String[] args, PermissionInterner.Grants grants) {
+            this.command = command;
+            this.forms = forms;
+            this.args = args.clone();
+            this.grants = grants;
+            this.hash = 31 * (31 * System.identityHashCode(forms) + Arrays.hashCode(args)) + grants.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(this == other) {
+                return true;
+            }
+            else if(other instanceof Key) {
+                Key key = (Key)other;
+                return hash == key.hash && forms == key.forms && Arrays.equals(args, key.args) &&
+                        grants.equals(key.grants);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Result {
+        private final List<String> completions;
+        private final long expiresAt;
+
+        private Result(List<String> completions, long expiresAt) {
+            this.completions = completions;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<Key, Result> entries;
+    private final long expiryNanos;
+
+    CompletionCache(int maximumSize, long expiryNanos) {
+        this.expiryNanos = expiryNanos;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) { //access order, so the eldest entry is least recently used
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached completions for a key.
+     * @param key The key
+     * @return An unmodifiable list of completions, or null if there is no entry or it has expired
+     */
+    synchronized List<String> get(Key key) {
+        Result entry = entries.get(key);
+
+        if(entry != null) {
+            if(System.nanoTime() - entry.expiresAt < 0) {
+                return entry.completions;
+            }
+
+            entries.remove(key);
+        }
+
+        return null;
+    }
+
+    /**
+     * Caches completions for a key.
+     * @param key The key
+     * @param completions The completions, which are copied
+     */
+    synchronized void put(Key key, List<String> completions) {
+        entries.put(key, new Result(List.copyOf(completions), System.nanoTime() + expiryNanos));
+    }
+
+    /**
+     * Discards every entry for the named command.
+     * @param command The name of the command
+     */
+    synchronized void invalidate(String command) {
+        Iterator<Key> iterator = entries.keySet().iterator();
+
+        while(iterator.hasNext()) {
+            if(iterator.next().command.equals(command)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards every entry.
+     */
+    synchronized void invalidateAll() {
+        entries.clear();
+    }
+}
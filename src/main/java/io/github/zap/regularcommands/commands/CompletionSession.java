@@ -0,0 +1,73 @@
+package io.github.zap.regularcommands.commands;
+
+import io.github.zap.regularcommands.completer.CompletionSink;
+
+import java.util.List;
+
+/**
+ * The state left behind by a player's most recent tab completion of a command. While typing an argument, each
+ * keystroke produces a new request that only extends the last argument of the previous one. Such a request can reuse
+ * the forms that were found to match the earlier arguments, and the output of any
+ * {@link io.github.zap.regularcommands.completer.CompleterTrait#NARROWABLE} completer can be filtered instead of being
+ * recomputed.
+ *
+ * CompletionSessions are immutable; a new one replaces the old one after every completion. No session is kept for a
+ * completion that reached the completion limit, since the output it would narrow may be missing completions.
+ */
+final class CompletionSession {
+    private final FormTrie trie;
+    private final PermissionInterner.Grants grants;
+    private final String[] args;
+
+    final int[] forms; //ordinals of the forms that matched the earlier arguments and the sender's permissions
+    final List<List<String>> results; //output of each form's completer if it is narrowable, otherwise null
+
+    CompletionSession(FormTrie trie, PermissionInterner.Grants grants, String[] args, Completions completions) {
+        this.trie = trie;
+        this.grants = grants;
+        this.args = args.clone();
+        this.forms = completions.forms;
+        this.results = completions.results;
+    }
+
+    /**
+     * Determines if the given input only extends the last argument of the input this session was created from, and
+     * was made against the same snapshot of forms by a sender with the same permissions.
+     * @param trie The snapshot of forms being completed from
+     * @param grants The sender's current permissions
+     * @param args The new argument list
+     * @return true if this session can be used to complete the new input, false otherwise
+     */
+    boolean isExtendedBy(FormTrie trie, PermissionInterner.Grants grants, String[] args) {
+        if(trie != this.trie || args.length != this.args.length || args.length == 0 || !grants.equals(this.grants)) {
+            return false;
+        }
+
+        int last = args.length - 1;
+        for(int i = 0; i < last; i++) {
+            if(!args[i].equals(this.args[i])) {
+                return false;
+            }
+        }
+
+        return args[last].startsWith(this.args[last]);
+    }
+
+    /**
+     * Filters a narrowable completer's previous output down to the completions that start with the given argument.
+     * @param completions The previous output, which may be null
+     * @param prefix The new last argument
+     * @param sink The sink to push the remaining completions into
+     */
+    static void narrow(List<String> completions, String prefix, CompletionSink sink) {
+        if(completions == null) {
+            return;
+        }
+
+        for(String completion : completions) {
+            if(completion.startsWith(prefix) && !sink.add(completion)) {
+                return;
+            }
+        }
+    }
+}
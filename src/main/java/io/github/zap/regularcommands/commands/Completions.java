@@ -0,0 +1,29 @@
+package io.github.zap.regularcommands.commands;
+
+import java.util.List;
+
+/**
+ * The result of completing a command, along with what is known about how it was produced.
+ */
+final class Completions {
+    /**
+     * Returned when asynchronous completion was requested, but a completer must be run on the main thread.
+     */
+    static final Completions MAIN_THREAD_ONLY = new Completions(null, false, false, null, null);
+
+    final List<String> list;
+    final boolean cacheable;
+    final boolean truncated; //the completion limit was reached, so some completions may be missing
+
+    //the state needed to start a CompletionSession; see CompletionSession for details
+    final int[] forms;
+    final List<List<String>> results;
+
+    Completions(List<String> list, boolean cacheable, boolean truncated, int[] forms, List<List<String>> results) {
+        this.list = list;
+        this.cacheable = cacheable;
+        this.truncated = truncated;
+        this.forms = forms;
+        this.results = results;
+    }
+}
@@ -6,11 +6,13 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Objects;
 
 /**
- * An immutable object used as a simple data container. It holds a CommandManager and a CommandSender object.
+ * A simple data container. It holds a CommandForm and a CommandSender object. Contexts supplied by CommandManager to
+ * forms that override {@link CommandForm#execute(Context, Arguments, Object)} are reused between commands; they are
+ * only valid for the duration of the validator or form method they are passed to, and should not be retained.
  */
 public class Context {
-    private final CommandSender sender;
-    private final CommandForm<?> form;
+    private CommandSender sender;
+    private CommandForm<?> form;
 
     /**
      * Creates a new Context object, which contains a CommandSender and a CommandForm.
@@ -21,6 +23,21 @@ public class Context {
         this.form = Objects.requireNonNull(form, "form cannot be null");
     }
 
+    /**
+     * Creates an empty Context, which must be set before use. Used for dispatch scratch space.
+     */
+    Context() {}
+
+    void set(CommandForm<?> form, CommandSender sender) {
+        this.form = form;
+        this.sender = sender;
+    }
+
+    void clear() {
+        this.form = null;
+        this.sender = null;
+    }
+
     /**
      * Gets the CommandSender object.
      * @return The CommandSender stored in this Context object
@@ -32,4 +49,4 @@ public class Context {
     public @NotNull CommandForm<?> getForm() {
         return form;
     }
-}
\ No newline at end of file
+}
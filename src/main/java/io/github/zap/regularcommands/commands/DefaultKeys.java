@@ -11,6 +11,7 @@ public enum DefaultKeys {
     ERROR_BLOCK_EXECUTOR("feedback.error.block_executor", "Only blocks can execute this command!"),
     ERROR_NO_PERMISSION("feedback.error.no_permission", "You do not have permission to execute this command!"),
     ERROR_NO_FORMS("feedback.error.no_forms", "No matching forms exist for that command!"),
+    ERROR_ASYNC_EXECUTION("feedback.error.async_execution", "An error occurred while executing this command!"),
     ERROR_CONVERT_BIG_DECIMAL("feedback.error.convert.big_decimal", "Value {0} cannot be converted to a BigDecimal!"),
     ERROR_CONVERT_BIG_INTEGER("feedback.error.convert.big_integer", "Value {0} cannot be converted to a BigInteger!"),
     ERROR_CONVERT_LONG("feedback.error.convert.long", "Value {0} cannot be converted to a long!"),
@@ -20,7 +21,11 @@ public enum DefaultKeys {
     ERROR_CONVERT_SHORT("feedback.error.convert.short", "Value {0} cannot be converted to a short!"),
     ERROR_CONVERT_BYTE("feedback.error.convert.byte", "Value {0} cannot be converted to a byte!"),
     ERROR_CONVERT_BOOLEAN("feedback.error.convert.boolean", "Value {0} cannot be converted to a boolean!"),
-    ERROR_CONVERT_MATERIAL("feedback.error.convert.material","Value {0} cannot be converted to a Material!");
+    ERROR_CONVERT_MATERIAL("feedback.error.convert.material","Value {0} cannot be converted to a Material!"),
+    ERROR_CONVERT_UUID("feedback.error.convert.uuid", "Value {0} cannot be converted to a UUID!"),
+    ERROR_CONVERT_ENUM("feedback.error.convert.enum", "Value {0} is not a valid option!"),
+    ERROR_CONVERT_RANGE("feedback.error.convert.range", "Value {0} must be between {1} and {2}!"),
+    ERROR_CONVERT_TOO_MANY_ELEMENTS("feedback.error.convert.too_many_elements", "No more than {0} values are allowed!");
 
     private final String key;
     private final String defaultPattern;
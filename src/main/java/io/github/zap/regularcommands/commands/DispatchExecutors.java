@@ -0,0 +1,29 @@
+package io.github.zap.regularcommands.commands;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the default executor for {@link AsyncCommandForm}s. This is the Java 11 implementation, which uses a
+ * bounded pool of daemon threads. The multi-release jar contains a Java 21 version of this class (under
+ * src/main/java21) that starts a virtual thread per task instead, and is picked automatically on Java 21 and later.
+ */
+final class DispatchExecutors {
+    private DispatchExecutors() {}
+
+    /**
+     * Creates a new executor.
+     * @param namePrefix The prefix used to name the executor's threads
+     * @return A new ExecutorService
+     */
+    static ExecutorService create(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.zap.regularcommands.commands;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Per-thread working memory for command dispatch. Holding the tokenized arguments, candidate list, Context and
+ * converted arguments here lets the common dispatch cases run without allocating. Dispatch is reentrant (a form
+ * may itself dispatch a command), so a scratch area that is already in use is never shared; a temporary one is created
+ * instead.
+ */
+final class DispatchScratch {
+    private static final ThreadLocal<DispatchScratch> LOCAL = ThreadLocal.withInitial(DispatchScratch::new);
+
+    final CommandLine line = new CommandLine();
+    final FormCandidates candidates = new FormCandidates();
+    final Context context = new Context();
+    Component conversionError;
+
+    private final Arguments arguments = new Arguments(8);
+    private boolean inUse;
+
+    private DispatchScratch() {}
+
+    /**
+     * Acquires the calling thread's scratch area, or a new one if it is already in use further up the stack. Must be
+     * paired with a call to {@link #release()}.
+     * @return A DispatchScratch that is exclusively owned by the caller
+     */
+    static DispatchScratch acquire() {
+        DispatchScratch scratch = LOCAL.get();
+
+        if(scratch.inUse) {
+            scratch = new DispatchScratch();
+        }
+
+        scratch.inUse = true;
+        return scratch;
+    }
+
+    /**
+     * Returns the reusable Arguments, resized to exactly the given number of slots, since forms may rely on the
+     * length of their argument array. It is cleared by {@link #clear(Arguments)}.
+     * @param size The number of slots
+     * @return The reusable Arguments
+     */
+    Arguments arguments(int size) {
+        arguments.reset(size);
+        return arguments;
+    }
+
+    /**
+     * Drops references held by Arguments obtained from {@link #arguments(int)}, so converted values do not outlive
+     * the dispatch that created them.
+     * @param arguments The arguments to clear
+     */
+    void clear(Arguments arguments) {
+        arguments.clear();
+    }
+
+    /**
+     * Releases this scratch area, dropping any references it holds so that senders and converted values can be
+     * garbage collected.
+     */
+    void release() {
+        line.clear();
+        candidates.clear();
+        context.clear();
+        conversionError = null;
+        inUse = false;
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.zap.regularcommands.commands;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of form ordinals, used internally to collect the forms that should be considered for a given input.
+ * Ordinals correspond to the order in which forms were added to their RegularCommand, so sorting a FormCandidates
+ * instance restores registration order.
+ */
+final class FormCandidates {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] ordinals;
+    private int size;
+
+    FormCandidates() {
+        this.ordinals = new int[DEFAULT_CAPACITY];
+    }
+
+    void add(int ordinal) {
+        if(size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+        }
+
+        ordinals[size++] = ordinal;
+    }
+
+    void addAll(int[] source, int length) {
+        if(length > 0) {
+            int required = size + length;
+            if(required > ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(required, ordinals.length * 2));
+            }
+
+            System.arraycopy(source, 0, ordinals, size, length);
+            size = required;
+        }
+    }
+
+    void sort() {
+        Arrays.sort(ordinals, 0, size);
+    }
+
+    int get(int index) {
+        return ordinals[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.zap.regularcommands.commands;
+
+import java.util.Arrays;
+
+/**
+ * Indexes forms by the number of arguments they can accept. Forms are sorted into three kinds of buckets: fixed-arity
+ * forms (no optional or vararg parameters) are stored under their exact size, forms with optional parameters are
+ * stored under every size in their accepted range, and vararg forms are kept ordered by their minimum size. Looking
+ * up the forms for a given argument count never touches forms that could not accept it.
+ */
+final class FormIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private static final class Bucket {
+        private int[] ordinals = EMPTY;
+        private int size;
+
+        private void add(int ordinal) {
+            if(size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(4, size * 2));
+            }
+
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    private static final class SortedBucket {
+        private int[] ordinals = EMPTY;
+        private int[] keys = EMPTY;
+        private int size;
+
+        //keeps keys in ascending order; equal keys retain insertion order
+        private void insert(int key, int ordinal) {
+            if(size == ordinals.length) {
+                int newLength = Math.max(4, size * 2);
+                ordinals = Arrays.copyOf(ordinals, newLength);
+                keys = Arrays.copyOf(keys, newLength);
+            }
+
+            int i = size;
+            while(i > 0 && keys[i - 1] > key) {
+                keys[i] = keys[i - 1];
+                ordinals[i] = ordinals[i - 1];
+                i--;
+            }
+
+            keys[i] = key;
+            ordinals[i] = ordinal;
+            size++;
+        }
+    }
+
+    private Bucket[] fixed = new Bucket[0];
+    private Bucket[] optional = new Bucket[0];
+
+    //vararg forms keyed by the minimum number of arguments they accept
+    private final SortedBucket vararg = new SortedBucket();
+
+    //non-vararg forms keyed by required length, used when completing partial input
+    private final SortedBucket partial = new SortedBucket();
+
+    /**
+     * Adds a form to the index.
+     * @param form The form to add
+     * @param ordinal The ordinal of the form, which is its index in the owning RegularCommand
+     */
+    void add(CommandForm<?> form, int ordinal) {
+        int size = form.size();
+        int required = form.getRequiredLength();
+
+        if(form.isVararg()) {
+            vararg.insert(Math.max(required, 1), ordinal);
+        }
+        else {
+            if(form.isOptional()) {
+                optional = ensureCapacity(optional, size);
+                for(int i = Math.max(required, 1); i <= size; i++) {
+                    optional[i].add(ordinal);
+                }
+            }
+            else {
+                fixed = ensureCapacity(fixed, size);
+                fixed[size].add(ordinal);
+            }
+
+            if(size > 0) {
+                partial.insert(required, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Collects every form that can accept exactly the given number of arguments, as determined by
+     * {@link CommandForm#matches(String[])}.
+     * @param argumentCount The number of input arguments
+     * @param out The FormCandidates to add to
+     */
+    void collectExact(int argumentCount, FormCandidates out) {
+        if(argumentCount < fixed.length) {
+            Bucket bucket = fixed[argumentCount];
+            out.addAll(bucket.ordinals, bucket.size);
+        }
+
+        if(argumentCount < optional.length) {
+            Bucket bucket = optional[argumentCount];
+            out.addAll(bucket.ordinals, bucket.size);
+        }
+
+        for(int i = 0; i < vararg.size && vararg.keys[i] <= argumentCount; i++) {
+            out.add(vararg.ordinals[i]);
+        }
+    }
+
+    /**
+     * Collects every form that could still be completed given the number of (possibly incomplete) arguments, as
+     * determined by {@link CommandForm#matchScore(String[])}.
+     * @param argumentCount The number of input arguments, including the one currently being typed
+     * @param out The FormCandidates to add to
+     */
+    void collectPartial(int argumentCount, FormCandidates out) {
+        out.addAll(vararg.ordinals, vararg.size);
+
+        for(int i = partial.size - 1; i >= 0 && partial.keys[i] >= argumentCount; i--) {
+            out.add(partial.ordinals[i]);
+        }
+    }
+
+    private static Bucket[] ensureCapacity(Bucket[] buckets, int index) {
+        if(index < buckets.length) {
+            return buckets;
+        }
+
+        Bucket[] expanded = Arrays.copyOf(buckets, index + 1);
+        for(int i = buckets.length; i < expanded.length; i++) {
+            expanded[i] = new Bucket();
+        }
+
+        return expanded;
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.zap.regularcommands.commands;
+
+import io.github.zap.regularcommands.converter.Parameter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the forms of a RegularCommand by their leading {@link Parameter.ParameterType#SIMPLE} parameters. Each node
+ * corresponds to a sequence of literals; a form is stored at the node reached by following its leading literals, up
+ * to (but not including) its first non-simple parameter. Looking up the forms that may match an input therefore
+ * visits at most one node per argument, regardless of how many forms are registered. Within each node, forms are
+ * further indexed by the number of arguments they accept.
+ *
+ * FormTries are immutable once constructed. RegularCommand publishes a new one the first time it is needed after forms
+ * are added, so lookups never need to lock, and a lookup and the forms it returns always come from the same snapshot.
+ */
+final class FormTrie {
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+
+        //forms whose literal prefix ends at this node
+        private final FormIndex terminal = new FormIndex();
+
+        //forms stored at this node or any of its descendants, used for completion of a partial literal
+        private final FormIndex subtree = new FormIndex();
+    }
+
+    private final Node root = new Node();
+    private final CommandForm<?>[] forms;
+
+    /**
+     * Creates a FormTrie containing the given forms. The ordinal of each form is its index in the list.
+     * @param forms The forms to index
+     */
+    FormTrie(List<CommandForm<?>> forms) {
+        this.forms = forms.toArray(new CommandForm<?>[0]);
+
+        for(int i = 0; i < this.forms.length; i++) {
+            add(this.forms[i], i);
+        }
+    }
+
+    private void add(CommandForm<?> form, int ordinal) {
+        Node node = root;
+        node.subtree.add(form, ordinal);
+
+        for(Parameter parameter : form) {
+            if(parameter.getType() != Parameter.ParameterType.SIMPLE) {
+                break;
+            }
+
+            node = node.children.computeIfAbsent(parameter.getMatch(), ignored -> new Node());
+            node.subtree.add(form, ordinal);
+        }
+
+        node.terminal.add(form, ordinal);
+    }
+
+    /**
+     * Collects the ordinals of every form whose leading literals are all matched by the provided arguments, and which
+     * can accept that many arguments, in the order the forms were added. The collected forms are not guaranteed to
+     * match; they are simply the only ones that can.
+     * @param line The complete input arguments
+     * @param out The FormCandidates to add to
+     */
+    void collectMatches(CommandLine line, FormCandidates out) {
+        int argumentCount = line.size();
+        Node node = root;
+        node.terminal.collectExact(argumentCount, out);
+
+        //stop at leaf nodes without looking up the argument, which would copy it out of the command line
+        for(int i = 0; i < argumentCount && !node.children.isEmpty(); i++) {
+            node = node.children.get(line.get(i));
+
+            if(node == null) {
+                break;
+            }
+
+            node.terminal.collectExact(argumentCount, out);
+        }
+
+        out.sort();
+    }
+
+    /**
+     * Collects the ordinals of every form that could be completed from the provided, possibly incomplete, arguments.
+     * All but the last argument must exactly match a form's literals; the last argument may match any literal, since
+     * the user may still be typing it. Forms that could not accept the number of arguments are skipped. Ordinals are
+     * collected in the order the forms were added.
+     * @param args The partial input argument array
+     * @param out The FormCandidates to add to
+     */
+    void collectCompletions(String[] args, FormCandidates out) {
+        Node node = root;
+
+        for(int i = 0; i < args.length - 1 && node != null; i++) {
+            node.terminal.collectPartial(args.length, out);
+            node = node.children.get(args[i]);
+        }
+
+        if(node != null) {
+            node.subtree.collectPartial(args.length, out);
+        }
+
+        out.sort();
+    }
+
+    /**
+     * Gets the form with the given ordinal.
+     * @param ordinal The ordinal, which is the index of the form in the order forms were added
+     * @return The form
+     */
+    CommandForm<?> get(int ordinal) {
+        return forms[ordinal];
+    }
+}
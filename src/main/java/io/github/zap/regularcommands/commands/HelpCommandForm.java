@@ -14,17 +14,19 @@ public class HelpCommandForm extends CommandForm<Component> {
             new Parameter("^[1-9]\\d*$", Converters.INTEGER_CONVERTER)
     };
 
-    private static final CommandValidator<Component, ?> validator = new CommandValidator<>(
+    private static final CommandValidator<Component, ?> validator = CommandValidator.typed(
             (context, arguments, previousData) -> {
-        int index = (int)arguments[1] - 1;
+        int page = arguments.getInt(1);
         PageBuilder pageBuilder = context.getForm().getCommand().getPageBuilder();
 
-        if(index < pageBuilder.pageCount()) {
-            return ValidationResult.of(true, null, pageBuilder.getPage(index));
+        Component display = pageBuilder.findPage(context.getSender(), page - 1);
+
+        if(display != null) {
+            return ValidationResult.of(true, null, display);
         }
 
-        return ValidationResult.of(true, Component.translatable(DefaultKeys.ERROR_PAGE_INDEX_OUT_OF_BOUNDS.key(),
-                Component.text(index)), null);
+        return ValidationResult.of(false, Component.translatable(DefaultKeys.ERROR_PAGE_INDEX_OUT_OF_BOUNDS.key(),
+                Component.text(page)), null);
     });
 
     public HelpCommandForm(@NotNull RegularCommand command, @NotNull Component usage,
@@ -33,10 +35,15 @@ public class HelpCommandForm extends CommandForm<Component> {
     }
 
     @Override
-    public @Nullable CommandValidator<Component, ?> getValidator(Context context, Object[] arguments) {
+    public @Nullable CommandValidator<Component, ?> getValidator(Context context, Arguments arguments) {
         return validator;
     }
 
+    @Override
+    public @Nullable Component execute(Context context, Arguments arguments, Component display) {
+        return display;
+    }
+
     @Override
     public @Nullable Component execute(Context context, Object[] arguments, Component display) {
         return display;
@@ -1,7 +1,9 @@
 package io.github.zap.regularcommands.commands;
 
 import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public interface PageBuilder {
     void addEntry(@NotNull CommandForm<?> form);
@@ -9,4 +11,35 @@ public interface PageBuilder {
     @NotNull Component getPage(int index);
 
     int pageCount();
+
+    /**
+     * Gets a page as it should be shown to the given sender. By default, every sender sees the same pages.
+     * @param sender The sender who requested the page
+     * @param index The index of the page
+     * @return The page
+     */
+    default @NotNull Component getPage(@NotNull CommandSender sender, int index) {
+        return getPage(index);
+    }
+
+    /**
+     * Gets the number of pages the given sender can see. By default, every sender sees the same pages.
+     * @param sender The sender who requested the page count
+     * @return The number of pages
+     */
+    default int pageCount(@NotNull CommandSender sender) {
+        return pageCount();
+    }
+
+    /**
+     * Gets a page as it should be shown to the given sender, or null if the sender cannot see a page with that index.
+     * By default, this checks {@link #pageCount(CommandSender)} before calling {@link #getPage(CommandSender, int)};
+     * implementations that filter entries per sender can override it to do so only once.
+     * @param sender The sender who requested the page
+     * @param index The index of the page
+     * @return The page, or null if the index is out of bounds for the sender
+     */
+    default @Nullable Component findPage(@NotNull CommandSender sender, int index) {
+        return index >= 0 && index < pageCount(sender) ? getPage(sender, index) : null;
+    }
 }
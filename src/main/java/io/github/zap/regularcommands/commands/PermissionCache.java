@@ -0,0 +1,169 @@
+package io.github.zap.regularcommands.commands;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the result of testing players against {@link PermissionData}, so that matching or completing a command with
+ * many forms does not re-test the same permissions on every call. Only players are cached; other senders are always
+ * tested directly.
+ *
+ * Every permission used by the manager's forms is interned, and each player's grants are tested once and stored as a
+ * bitset. Testing a player against a PermissionData is then a word-wise AND against the PermissionData's own bitset,
+ * regardless of how many forms or permissions there are.
+ *
+ * Bukkit does not report when a player's permissions are recalculated, so cached decisions are kept for a short time
+ * (see {@link #setExpiry(Duration)}) and are discarded immediately if the player's operator status changes or the
+ * player quits. Plugins that change permissions can call {@link #invalidate(UUID)} or {@link #invalidateAll()} to
+ * make the change take effect right away.
+ */
+public final class PermissionCache {
+    private static final Duration DEFAULT_EXPIRY = Duration.ofSeconds(1);
+
+    private static final class Entry {
+        private final boolean op;
+        private final long expiresAt;
+        private final PermissionInterner.Grants grants;
+
+        private Entry(boolean op, long expiresAt, PermissionInterner.Grants grants) {
+            this.op = op;
+            this.expiresAt = expiresAt;
+            this.grants = grants;
+        }
+    }
+
+    private final PermissionInterner interner = new PermissionInterner();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long expiryNanos = DEFAULT_EXPIRY.toNanos();
+
+    PermissionCache() {}
+
+    /**
+     * Tests if the sender satisfies the given PermissionData, using a cached decision if one is available.
+     * @param sender The sender to test
+     * @param permissions The PermissionData to test against
+     * @return True if the sender has all of the required permissions, false otherwise
+     */
+    public boolean validate(@NotNull CommandSender sender, @NotNull PermissionData permissions) {
+        long expiry = expiryNanos;
+
+        if(!(sender instanceof Player) || expiry == 0) {
+            return permissions.validateFor(sender);
+        }
+
+        Player player = (Player)sender;
+        PermissionInterner.Mask mask = interner.mask(permissions);
+        Entry entry = entry(player, mask, expiry);
+        return entry.grants.satisfies(mask);
+    }
+
+    /**
+     * Gets the current permission grants of a player, which can be used to tell if two players are indistinguishable
+     * by their permissions. The grants cover every permission interned so far, so they can be compared with grants
+     * obtained for any other player, and used to test the forms of any FormTrie taken before this call.
+     * @param player The player
+     * @return The player's grants, or null if caching is disabled
+     */
+    PermissionInterner.Grants grants(Player player) {
+        long expiry = expiryNanos;
+        return expiry == 0 ? null : entry(player, null, expiry).grants;
+    }
+
+    /**
+     * Gets a player's cached grants without testing any permissions or checking the player's operator status, so that
+     * it can be called off the main thread. The grants are only returned if they are fresh and cover every interned
+     * permission; otherwise, the caller should fall back to the main thread, where {@link #grants(Player)} refreshes
+     * them.
+     * @param playerId The UUID of the player
+     * @return The player's grants, or null if there is no usable cached entry
+     */
+    PermissionInterner.Grants cachedGrants(UUID playerId) {
+        if(expiryNanos == 0) {
+            return null;
+        }
+
+        Entry entry = entries.get(playerId);
+        if(entry == null || System.nanoTime() - entry.expiresAt >= 0 || !interner.coversAll(entry.grants)) {
+            return null;
+        }
+
+        return entry.grants;
+    }
+
+    /**
+     * Tests grants against a PermissionData without using the Permissible API.
+     * @param grants The grants to test
+     * @param permissions The PermissionData to test against
+     * @return True if the grants include every required permission, false if they do not, or if they were created
+     * before one of its permissions was interned
+     */
+    boolean satisfies(PermissionInterner.Grants grants, PermissionData permissions) {
+        PermissionInterner.Mask mask = interner.mask(permissions);
+        return grants.covers(mask) && grants.satisfies(mask);
+    }
+
+    /*
+    gets the player's entry, replacing it if it is out of date. grants created before one of the mask's permissions was
+    interned can't be used to test it; without a mask, the grants must cover every interned permission
+     */
+    private Entry entry(Player player, PermissionInterner.Mask mask, long expiry) {
+        UUID id = player.getUniqueId();
+        boolean op = player.isOp();
+        long now = System.nanoTime();
+        Entry entry = entries.get(id);
+
+        if(entry == null || entry.op != op || now - entry.expiresAt >= 0 ||
+                (mask == null ? !interner.coversAll(entry.grants) : !entry.grants.covers(mask))) {
+            entry = new Entry(op, now + expiry, interner.grants(player, op));
+            entries.put(id, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Interns the permissions used by a PermissionData ahead of time, so that grants created afterwards can be used to
+     * test it.
+     * @param permissions The PermissionData
+     */
+    void prepare(PermissionData permissions) {
+        interner.mask(permissions);
+    }
+
+    /**
+     * Sets how long cached decisions are kept. A duration of zero disables caching.
+     * @param expiry The amount of time to keep decisions for
+     */
+    public void setExpiry(@NotNull Duration expiry) {
+        Objects.requireNonNull(expiry, "expiry cannot be null");
+
+        if(expiry.isNegative()) {
+            throw new IllegalArgumentException("expiry cannot be negative");
+        }
+
+        expiryNanos = expiry.toNanos();
+        entries.clear();
+    }
+
+    /**
+     * Discards the cached decisions for a single player.
+     * @param playerId The UUID of the player
+     */
+    public void invalidate(@NotNull UUID playerId) {
+        entries.remove(Objects.requireNonNull(playerId, "playerId cannot be null"));
+    }
+
+    /**
+     * Discards every cached decision.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+}
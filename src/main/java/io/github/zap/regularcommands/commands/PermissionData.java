@@ -11,7 +11,7 @@ import java.util.Set;
  * Holds information about the permissions required to run a command.
  */
 public class PermissionData {
-    private final Set<Permission> permissions;
+    private final Permission[] permissions;
     private final boolean requiresOp;
 
     /**
@@ -20,7 +20,7 @@ public class PermissionData {
      * @param requiresOp Whether or not operator should be required
      */
     public PermissionData(@NotNull Set<Permission> permissions, boolean requiresOp) {
-        this.permissions = new HashSet<>(permissions);
+        this.permissions = new HashSet<>(permissions).toArray(new Permission[0]);
         this.requiresOp = requiresOp;
     }
 
@@ -47,12 +47,30 @@ public class PermissionData {
         this(new HashSet<>(), false);
     }
 
+    Permission[] getPermissionArray() {
+        return permissions;
+    }
+
+    boolean requiresOp() {
+        return requiresOp;
+    }
+
     /**
      * Tests if the provided Permissible has all the permissions specified by this PermissionData object.
      * @param permissible The Permissible to test for
      * @return True if the Permissible has, at minimum, all the required permissions. False otherwise
      */
     public boolean validateFor(@NotNull Permissible permissible) {
-        return (!requiresOp || permissible.isOp()) && permissions.stream().allMatch(permissible::hasPermission);
+        if(requiresOp && !permissible.isOp()) {
+            return false;
+        }
+
+        for(Permission permission : permissions) {
+            if(!permissible.hasPermission(permission)) {
+                return false;
+            }
+        }
+
+        return true;
     }
 }
@@ -0,0 +1,172 @@
+package io.github.zap.regularcommands.commands;
+
+import org.bukkit.permissions.Permissible;
+import org.bukkit.permissions.Permission;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns every Permission used by a CommandManager's forms a dense integer id, so that the permissions required by a
+ * {@link PermissionData} and the permissions granted to a sender can both be represented as bitsets. Testing a sender
+ * against a PermissionData is then a word-wise AND. Permissions are interned by identity, as PermissionData compares
+ * them, so that each permission's own default is respected when testing grants.
+ */
+final class PermissionInterner {
+    /**
+     * The permissions required by a PermissionData, as a bitset of permission ids.
+     */
+    static final class Mask {
+        private final long[] bits;
+        private final int limit; //one greater than the largest id in the mask
+        private final boolean requiresOp;
+
+        private Mask(long[] bits, int limit, boolean requiresOp) {
+            this.bits = bits;
+            this.limit = limit;
+            this.requiresOp = requiresOp;
+        }
+    }
+
+    /**
+     * The permissions granted to a sender, as a bitset covering every permission interned when it was created, along
+     * with whether the sender is an operator. Two equal Grants satisfy exactly the same masks.
+     */
+    static final class Grants {
+        private final long[] bits;
+        private final int count;
+        private final boolean op;
+
+        private Grants(long[] bits, int count, boolean op) {
+            this.bits = bits;
+            this.count = count;
+            this.op = op;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(this == other) {
+                return true;
+            }
+            else if(other instanceof Grants) {
+                Grants grants = (Grants)other;
+                return count == grants.count && op == grants.op && Arrays.equals(bits, grants.bits);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Arrays.hashCode(bits) + count) + Boolean.hashCode(op);
+        }
+
+        /**
+         * Returns true if these grants were created after every permission in the mask was interned, and so can be used
+         * to test it.
+         * @param mask The mask
+         * @return True if the mask can be tested against these grants, false if they must be recreated
+         */
+        boolean covers(Mask mask) {
+            return mask.limit <= count;
+        }
+
+        /**
+         * Tests if these grants include every permission in the mask. The mask must be covered by these grants.
+         * @param mask The mask to test
+         * @return True if the mask is satisfied, false otherwise
+         */
+        boolean satisfies(Mask mask) {
+            if(mask.requiresOp && !op) {
+                return false;
+            }
+
+            long[] required = mask.bits;
+            for(int i = 0; i < required.length; i++) {
+                if((required[i] & ~bits[i]) != 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private final Map<Permission, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<PermissionData, Mask> masks = new ConcurrentHashMap<>();
+    private volatile Permission[] permissions = new Permission[0]; //indexed by id
+
+    /**
+     * Gets the mask for a PermissionData, interning its permissions if they have not been seen before.
+     * @param data The PermissionData
+     * @return The mask of required permissions
+     */
+    Mask mask(PermissionData data) {
+        Mask mask = masks.get(data);
+        return mask != null ? mask : masks.computeIfAbsent(data, this::compile);
+    }
+
+    private Mask compile(PermissionData data) {
+        int limit = 0;
+        long[] bits = new long[0];
+
+        for(Permission permission : data.getPermissionArray()) {
+            int id = intern(permission);
+            int word = id >>> 6;
+
+            if(word >= bits.length) {
+                bits = Arrays.copyOf(bits, word + 1);
+            }
+
+            bits[word] |= 1L << id;
+            limit = Math.max(limit, id + 1);
+        }
+
+        return new Mask(bits, limit, data.requiresOp());
+    }
+
+    private synchronized int intern(Permission permission) {
+        Integer id = ids.get(permission);
+
+        if(id == null) {
+            Permission[] expanded = Arrays.copyOf(permissions, permissions.length + 1);
+            id = permissions.length;
+            expanded[id] = permission;
+
+            permissions = expanded;
+            ids.put(permission, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Returns true if the grants were created after every permission was interned, and so can be used to test any mask
+     * this interner has produced so far.
+     * @param grants The grants
+     * @return True if the grants cover every interned permission, false if they must be recreated
+     */
+    boolean coversAll(Grants grants) {
+        return grants.count == permissions.length;
+    }
+
+    /**
+     * Tests the permissible against every interned permission.
+     * @param permissible The permissible to test
+     * @param op Whether the permissible is an operator
+     * @return The permissions granted to the permissible
+     */
+    Grants grants(Permissible permissible, boolean op) {
+        Permission[] snapshot = permissions;
+        long[] bits = new long[(snapshot.length + 63) >>> 6];
+
+        for(int i = 0; i < snapshot.length; i++) {
+            if(permissible.hasPermission(snapshot[i])) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+
+        return new Grants(bits, snapshot.length, op);
+    }
+}
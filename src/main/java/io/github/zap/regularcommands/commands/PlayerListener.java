@@ -0,0 +1,22 @@
+package io.github.zap.regularcommands.commands;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Discards per-player state held by a CommandManager when players leave the server.
+ */
+final class PlayerListener implements Listener {
+    private final CommandManager manager;
+
+    PlayerListener(CommandManager manager) {
+        this.manager = manager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        manager.forgetPlayer(event.getPlayer().getUniqueId());
+    }
+}
@@ -1,22 +1,30 @@
 package io.github.zap.regularcommands.commands;
 
 import io.github.zap.regularcommands.completer.ArgumentCompleter;
+import io.github.zap.regularcommands.completer.CompleterTrait;
+import io.github.zap.regularcommands.completer.CompletionSink;
 import io.github.zap.regularcommands.converter.MatchResult;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * Represents a command, which should conceptually organize a number of related CommandForms. Strictly, RegularCommands
  * have a unique name (which is used to identify it) and a user-friendly usage string.
+ *
+ * Like the command itself, which is registered through the Bukkit API, forms should be added on the main thread.
+ * Matching and completion may still run on other threads while forms are being added (for example, when completing
+ * asynchronously), and always see a consistent set of forms: either before or after a given form was added.
  */
 public class RegularCommand {
     private final CommandManager manager;
     private final String name;
-    private final List<CommandForm<?>> forms;
+    private final List<CommandForm<?>> forms; //guarded by this; readers use formTrie
+    private volatile FormTrie formTrie; //null if forms were added since it was built
     private final PageBuilder pageBuilder;
 
     /**
@@ -27,6 +35,7 @@ public class RegularCommand {
         this.manager = manager;
         this.name = Objects.requireNonNull(name, "name cannot be null");
         this.forms = new ArrayList<>();
+        this.formTrie = new FormTrie(forms);
         this.pageBuilder = Objects.requireNonNull(pageBuilder, "pageBuilder cannot be null");
     }
 
@@ -34,9 +43,12 @@ public class RegularCommand {
      * Adds a form to this RegularCommand.
      * @param form The form to add
      */
-    public void addForm(@NotNull CommandForm<?> form) {
-        forms.add(Objects.requireNonNull(form, "form cannot be null"));
+    public synchronized void addForm(@NotNull CommandForm<?> form) {
+        Objects.requireNonNull(form, "form cannot be null");
+        forms.add(form);
+        manager.getPermissionCache().prepare(form.getPermissions());
         pageBuilder.addEntry(form);
+        formTrie = null; //rebuilt by the next lookup, so adding many forms in a row only builds the trie once
     }
 
     /**
@@ -60,16 +72,26 @@ public class RegularCommand {
     }
 
     /**
-     * Returns a list of all CommandForm objects that match the provided argument array.
+     * Returns a list of all CommandForm objects that match the provided argument array. Only forms whose leading
+     * simple parameters are matched by the input are considered; MatchResults are returned in the order their forms
+     * were added.
      * @param args The argument array used to check for matches
      * @param sender The CommandSender that is attempting to run this command
      * @return All matching command forms, or an empty list if none exist
      */
     public @NotNull List<MatchResult> getMatches(@NotNull String[] args, @NotNull CommandSender sender) {
         List<MatchResult> matches = new ArrayList<>();
-        for(CommandForm<?> form : forms) {
+        FormTrie trie = getFormTrie();
+        FormCandidates candidates = new FormCandidates();
+        CommandLine line = new CommandLine();
+        line.wrap(args);
+        trie.collectMatches(line, candidates);
+
+        for(int i = 0; i < candidates.size(); i++) {
+            CommandForm<?> form = trie.get(candidates.get(i));
+
             //check permissions before running relatively expensive matching algorithm
-            if(form.getPermissions().validateFor(sender)) {
+            if(manager.getPermissionCache().validate(sender, form.getPermissions())) {
                 MatchResult matchResult = form.matches(args);
 
                 if(matchResult.matches()) {
@@ -77,13 +99,35 @@ public class RegularCommand {
                 }
             }
             else {
-                matches.add(new MatchResult(form, false, false, null));
+                matches.add(form.noPermission());
             }
         }
 
         return matches;
     }
 
+    /**
+     * Gets the current snapshot of this command's forms. Callers should use a single snapshot for both looking up
+     * forms and retrieving them by ordinal.
+     * @return The current FormTrie
+     */
+    FormTrie getFormTrie() {
+        FormTrie trie = formTrie;
+        return trie != null ? trie : buildFormTrie();
+    }
+
+    /* builds the trie once for every form added since the last build; lookups are far more common than additions */
+    private synchronized FormTrie buildFormTrie() {
+        FormTrie trie = formTrie;
+
+        if(trie == null) {
+            trie = new FormTrie(forms);
+            formTrie = trie;
+        }
+
+        return trie;
+    }
+
     /**
      * Attempts to generate a tab completion list given a CommandSender and an array of strings corresponding to a
      * partially completed command.
@@ -93,22 +137,87 @@ public class RegularCommand {
      * @return A list containing tab completions, or an empty list if none exist
      */
     public @NotNull List<String> getCompletions(@NotNull CommandSender sender, @NotNull String[] args) {
-        List<String> possibleCompletions = new ArrayList<>();
+        return complete(getFormTrie(), sender, args, false, null, null).list;
+    }
 
-        for(CommandForm<?> form : forms) {
-            if(form.getPermissions().validateFor(sender) && form.matchScore(args) >= 0) {
-                ArgumentCompleter completer = form.getCompleter();
+    /**
+     * Generates tab completions using the given snapshot of this command's forms. If async is true and any form that
+     * would contribute completions has a completer that is not {@link CompleterTrait#ASYNC_SAFE}, nothing is completed
+     * and {@link Completions#MAIN_THREAD_ONLY} is returned, so the caller can fall back to completing on the main
+     * thread. The result is cacheable if every contributing completer is {@link CompleterTrait#CACHEABLE}. At most
+     * {@link CommandManager#getCompletionLimit()} completions are produced, and forms after the limit is reached are
+     * not completed at all.
+     *
+     * If a previous session is given, the input must extend it (see {@link CompletionSession#isExtendedBy}). The forms
+     * it found are reused without being matched again, and the output of {@link CompleterTrait#NARROWABLE} completers
+     * is filtered from the previous output.
+     *
+     * If grants are given, forms are tested against them instead of the sender, so that no permissions are tested
+     * through the Permissible API; this is required when completing off the main thread. They must cover every form in
+     * the trie.
+     * @param trie The snapshot of forms to complete from
+     * @param sender The CommandSender that is attempting to tab complete
+     * @param args The current argument list
+     * @param async Whether completion is being performed off the main thread
+     * @param grants The sender's permission grants, or null to test the sender directly
+     * @param previous The session this input extends, or null
+     * @return The completions
+     */
+    Completions complete(FormTrie trie, CommandSender sender, String[] args, boolean async,
+                         PermissionInterner.Grants grants, CompletionSession previous) {
+        int[] forms = previous == null ? matchingForms(trie, sender, args, grants) : previous.forms;
+        CompletionSink sink = new CompletionSink(manager.getCompletionLimit());
+        List<List<String>> results = new ArrayList<>(forms.length);
+        boolean cacheable = true;
+
+        for(int i = 0; i < forms.length && !sink.isFull(); i++) {
+            CommandForm<?> form = trie.get(forms[i]);
+            ArgumentCompleter completer = form.getCompleter();
+            int start = sink.size();
+            boolean narrowable = false;
+
+            if(completer != null) {
+                narrowable = completer.hasTrait(CompleterTrait.NARROWABLE);
+
+                if(previous != null && narrowable) {
+                    CompletionSession.narrow(previous.results.get(i), args[args.length - 1], sink);
+                }
+                else if(async && !completer.hasTrait(CompleterTrait.ASYNC_SAFE)) {
+                    return Completions.MAIN_THREAD_ONLY;
+                }
+                else {
+                    completer.complete(new Context(form, sender), args, sink);
+                }
 
-                if(completer != null) {
-                    List<String> formCompletions = completer.complete(new Context(form, sender), args);
+                cacheable &= completer.hasTrait(CompleterTrait.CACHEABLE);
+            }
 
-                    if(formCompletions != null) {
-                        possibleCompletions.addAll(formCompletions);
-                    }
-                }
+            int end = sink.size();
+            results.add(narrowable && end > start ? new ArrayList<>(sink.getCompletions().subList(start, end)) : null);
+        }
+
+        return new Completions(sink.getCompletions(), cacheable, sink.isFull(), forms, results);
+    }
+
+    /* finds the forms that can complete the given input, in order */
+    private int[] matchingForms(FormTrie trie, CommandSender sender, String[] args, PermissionInterner.Grants grants) {
+        PermissionCache permissionCache = manager.getPermissionCache();
+        FormCandidates candidates = new FormCandidates();
+        trie.collectCompletions(args, candidates);
+
+        int[] forms = new int[candidates.size()];
+        int size = 0;
+
+        for(int i = 0; i < candidates.size(); i++) {
+            int ordinal = candidates.get(i);
+            CommandForm<?> form = trie.get(ordinal);
+
+            if(form.matchScore(args) >= 0 && (grants == null ? permissionCache.validate(sender, form.getPermissions()) :
+                    permissionCache.satisfies(grants, form.getPermissions()))) {
+                forms[size++] = ordinal;
             }
         }
 
-        return possibleCompletions;
+        return size == forms.length ? forms : Arrays.copyOf(forms, size);
     }
 }
\ No newline at end of file
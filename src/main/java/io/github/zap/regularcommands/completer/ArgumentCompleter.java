@@ -4,7 +4,11 @@ import io.github.zap.regularcommands.commands.Context;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * This object completes arguments
@@ -12,16 +16,34 @@ import java.util.List;
 public class ArgumentCompleter {
     private final CompletionStep step;
     private final ArgumentCompleter depend;
+    private final Set<CompleterTrait> traits;
 
     /**
      * Creates a new ArgumentCompleter object with the specified CompletionStep, an ArgumentCompleter this instance
-     * should be chained to.
+     * should be chained to, and the traits of the step.
      * @param step The completion step
      * @param depend The ArgumentCompleter whose output will be added to this instance's
+     * @param traits The traits of the completion step
      */
-    public ArgumentCompleter(@NotNull CompletionStep step, @Nullable ArgumentCompleter depend) {
+    public ArgumentCompleter(@NotNull CompletionStep step, @Nullable ArgumentCompleter depend,
+                             @NotNull CompleterTrait... traits) {
         this.step = step;
         this.depend = depend;
+        this.traits = EnumSet.noneOf(CompleterTrait.class);
+
+        for(CompleterTrait trait : Objects.requireNonNull(traits, "traits cannot be null")) {
+            this.traits.add(Objects.requireNonNull(trait, "trait cannot be null"));
+        }
+    }
+
+    /**
+     * Creates a new ArgumentCompleter object with the specified CompletionStep, an ArgumentCompleter this instance
+     * should be chained to.
+     * @param step The completion step
+     * @param depend The ArgumentCompleter whose output will be added to this instance's
+     */
+    public ArgumentCompleter(@NotNull CompletionStep step, @Nullable ArgumentCompleter depend) {
+        this(step, depend, new CompleterTrait[0]);
     }
 
     /**
@@ -32,11 +54,21 @@ public class ArgumentCompleter {
         this(step, null);
     }
 
+    /**
+     * Returns true if this completer, and every completer it is chained to, has the given trait.
+     * @param trait The trait to test for
+     * @return True if the whole chain has the trait, false otherwise
+     */
+    public boolean hasTrait(@NotNull CompleterTrait trait) {
+        return traits.contains(trait) && (depend == null || depend.hasTrait(trait));
+    }
+
     /**
      * Produces a list of completion strings given the context, CommandForm, and a possibly incomplete set of arguments.
      * @param context The command context
      * @param args A potentially incomplete list of arguments
-     * @return A list of strings corresponding to potential completions, or null if there are none
+     * @return A list of strings corresponding to potential completions, or null if there are none. The list may be
+     * unmodifiable
      */
     public List<String> complete(@NotNull Context context, @NotNull String[] args) {
         if(depend == null) {
@@ -47,8 +79,11 @@ public class ArgumentCompleter {
         List<String> result = step.complete(context, args);
 
         if(result != null) {
-            if(nextResult != null) {
-                nextResult.addAll(result);
+            if(nextResult != null) { //steps may return unmodifiable lists, so combine them into a new one
+                List<String> combined = new ArrayList<>(nextResult.size() + result.size());
+                combined.addAll(nextResult);
+                combined.addAll(result);
+                nextResult = combined;
             }
             else {
                 nextResult = result;
@@ -57,4 +92,21 @@ public class ArgumentCompleter {
 
         return nextResult;
     }
+
+    /**
+     * Pushes completions into the given sink, starting with those of the completer this instance is chained to. Steps
+     * are not run once the sink is full.
+     * @param context The command context
+     * @param args A potentially incomplete list of arguments
+     * @param sink The sink to push completions into
+     */
+    public void complete(@NotNull Context context, @NotNull String[] args, @NotNull CompletionSink sink) {
+        if(depend != null) {
+            depend.complete(context, args, sink);
+        }
+
+        if(!sink.isFull()) {
+            step.complete(context, args, sink);
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package io.github.zap.regularcommands.completer;
+
+/**
+ * Properties an {@link ArgumentCompleter} can declare about itself, which let CommandManager run it in more contexts or
+ * reuse its output. Traits are promises made by the completer's author; they are not verified.
+ */
+public enum CompleterTrait {
+    /**
+     * The completer may be run off the main thread. Its CompletionStep must be thread-safe and must not use Bukkit API
+     * that is restricted to the main thread. Completers without this trait are always run on the main thread.
+     */
+    ASYNC_SAFE,
+
+    /**
+     * The completer's output depends only on the arguments and the sender's permissions, so it can be cached and
+     * shared between senders with the same permissions. If the completer draws from a source that can change, the
+     * cache must be invalidated when it does (see {@link io.github.zap.regularcommands.commands.CommandManager}).
+     */
+    CACHEABLE,
+
+    /**
+     * Extending the last argument only ever narrows the completer's output: for the same earlier arguments, its output
+     * for a longer last argument is exactly its output for the shorter one, filtered to the completions that start
+     * with the longer argument (compared case-sensitively). While a player types, CommandManager then filters the
+     * previous output instead of running the completer again.
+     */
+    NARROWABLE
+}
@@ -0,0 +1,94 @@
+package io.github.zap.regularcommands.completer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collects completions pushed by {@link CompletionStep}s, up to a limit. Once the limit is reached, further completions
+ * are ignored; steps that draw from a large source should check the value returned by add (or isFull) and stop
+ * producing completions as soon as the sink is full.
+ */
+public final class CompletionSink {
+    private final int limit;
+    private final List<String> completions;
+
+    /**
+     * Creates a new CompletionSink that will accept at most the given number of completions.
+     * @param limit The maximum number of completions
+     */
+    public CompletionSink(int limit) {
+        if(limit <= 0) {
+            throw new IllegalArgumentException("limit must be > 0");
+        }
+
+        this.limit = limit;
+        this.completions = new ArrayList<>(Math.min(limit, 16));
+    }
+
+    /**
+     * Adds a completion, unless the sink is full.
+     * @param completion The completion to add
+     * @return True if more completions can be added, false if the sink is now full
+     */
+    public boolean add(@NotNull String completion) {
+        Objects.requireNonNull(completion, "completion cannot be null");
+
+        if(completions.size() < limit) {
+            completions.add(completion);
+        }
+
+        return completions.size() < limit;
+    }
+
+    /**
+     * Adds completions in iteration order, stopping once the sink is full.
+     * @param completions The completions to add
+     * @return True if more completions can be added, false if the sink is now full
+     */
+    public boolean addAll(@NotNull Iterable<String> completions) {
+        Objects.requireNonNull(completions, "completions cannot be null");
+
+        for(String completion : completions) {
+            if(!add(completion)) {
+                return false;
+            }
+        }
+
+        return !isFull();
+    }
+
+    /**
+     * Returns true if the sink has reached its limit.
+     * @return True if no more completions can be added, false otherwise
+     */
+    public boolean isFull() {
+        return completions.size() >= limit;
+    }
+
+    /**
+     * Gets the number of completions that can still be added.
+     * @return The number of completions that can still be added
+     */
+    public int remaining() {
+        return limit - completions.size();
+    }
+
+    /**
+     * Gets the number of completions that have been added.
+     * @return The number of completions
+     */
+    public int size() {
+        return completions.size();
+    }
+
+    /**
+     * Gets the list backing this sink, which contains every completion added so far, in order.
+     * @return The completions
+     */
+    public @NotNull List<String> getCompletions() {
+        return completions;
+    }
+}
@@ -7,4 +7,20 @@ import java.util.List;
 
 public interface CompletionStep {
     List<String> complete(@NotNull Context context, @NotNull String[] args);
+
+    /**
+     * Pushes completions into the given sink. By default, this adds the list returned by
+     * {@link CompletionStep#complete(Context, String[])}; steps backed by a large source should implement
+     * {@link StreamingCompletionStep} instead, so they can stop once the sink is full.
+     * @param context The command context
+     * @param args A potentially incomplete list of arguments
+     * @param sink The sink to push completions into
+     */
+    default void complete(@NotNull Context context, @NotNull String[] args, @NotNull CompletionSink sink) {
+        List<String> completions = complete(context, args);
+
+        if(completions != null) {
+            sink.addAll(completions);
+        }
+    }
 }
@@ -0,0 +1,177 @@
+package io.github.zap.regularcommands.completer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable, sorted set of completion options that answers prefix queries by binary search. Queries return views of
+ * the underlying array, so they do not copy any options regardless of how many there are. An index may optionally
+ * ignore case, in which case options are ordered and matched the same way as {@link String#CASE_INSENSITIVE_ORDER}.
+ */
+public final class PrefixIndex {
+    private static final PrefixIndex EMPTY = new PrefixIndex(new String[0], false);
+
+    private final String[] options;
+    private final List<String> view;
+    private final boolean ignoreCase;
+
+    private PrefixIndex(String[] options, boolean ignoreCase) {
+        this.options = options;
+        this.view = Collections.unmodifiableList(Arrays.asList(options));
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Creates a case-sensitive PrefixIndex containing the given options.
+     * @param options The completion options, which may contain duplicates
+     * @return A new PrefixIndex
+     */
+    public static @NotNull PrefixIndex of(@NotNull Collection<String> options) {
+        return of(options, false);
+    }
+
+    /**
+     * Creates a PrefixIndex containing the given options.
+     * @param options The completion options, which may contain duplicates
+     * @param ignoreCase Whether prefix queries should ignore case
+     * @return A new PrefixIndex
+     */
+    public static @NotNull PrefixIndex of(@NotNull Collection<String> options, boolean ignoreCase) {
+        Objects.requireNonNull(options, "options cannot be null");
+
+        if(options.isEmpty()) {
+            return ignoreCase ? new PrefixIndex(new String[0], true) : EMPTY;
+        }
+
+        String[] array = options.toArray(new String[0]);
+        for(String option : array) {
+            Objects.requireNonNull(option, "option cannot be null");
+        }
+
+        if(ignoreCase) { //break ties by case, so that exact duplicates are adjacent
+            Arrays.sort(array, String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder()));
+        }
+        else {
+            Arrays.sort(array);
+        }
+
+        return new PrefixIndex(dedupe(array), ignoreCase);
+    }
+
+    /**
+     * Returns an empty, case-sensitive PrefixIndex.
+     * @return An empty PrefixIndex
+     */
+    public static @NotNull PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    private static String[] dedupe(String[] sorted) {
+        int size = 1;
+
+        for(int i = 1; i < sorted.length; i++) {
+            if(!sorted[i].equals(sorted[size - 1])) {
+                sorted[size++] = sorted[i];
+            }
+        }
+
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Returns every option that starts with the given prefix, in sorted order. The returned list is an unmodifiable
+     * view of this index.
+     * @param prefix The prefix
+     * @return The options starting with the prefix, which may be empty
+     */
+    public @NotNull List<String> withPrefix(@NotNull String prefix) {
+        Objects.requireNonNull(prefix, "prefix cannot be null");
+
+        if(prefix.isEmpty()) {
+            return view;
+        }
+
+        int start = search(prefix, false);
+        int end = search(prefix, true);
+        return start == end ? List.of() : view.subList(start, end);
+    }
+
+    /**
+     * Returns every option in this index, in sorted order. The returned list is an unmodifiable view of this index.
+     * @return Every option
+     */
+    public @NotNull List<String> getOptions() {
+        return view;
+    }
+
+    /**
+     * Returns true if prefix queries against this index ignore case.
+     * @return True if this index ignores case, false otherwise
+     */
+    public boolean ignoresCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * Returns the number of distinct options in this index.
+     * @return The number of options
+     */
+    public int size() {
+        return options.length;
+    }
+
+    /*
+    options starting with the prefix are contiguous. this finds the first index whose option compares greater than or
+    equal to the prefix (or, if upper is true, strictly greater), comparing only the first prefix.length() characters
+     */
+    private int search(String prefix, boolean upper) {
+        int low = 0;
+        int high = options.length;
+
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparePrefix(options[middle], prefix);
+
+            if(comparison < 0 || upper && comparison == 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int comparePrefix(String option, String prefix) {
+        int length = Math.min(option.length(), prefix.length());
+
+        for(int i = 0; i < length; i++) {
+            char a = option.charAt(i);
+            char b = prefix.charAt(i);
+
+            if(a != b) {
+                if(ignoreCase) {
+                    //same folding as String.CASE_INSENSITIVE_ORDER, so comparisons agree with the sort order
+                    a = Character.toLowerCase(Character.toUpperCase(a));
+                    b = Character.toLowerCase(Character.toUpperCase(b));
+
+                    if(a != b) {
+                        return a - b;
+                    }
+                }
+                else {
+                    return a - b;
+                }
+            }
+        }
+
+        return option.length() < prefix.length() ? -1 : 0;
+    }
+}
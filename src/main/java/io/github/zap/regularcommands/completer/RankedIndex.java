@@ -0,0 +1,302 @@
+package io.github.zap.regularcommands.completer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable set of completion options that answers queries by scoring every option against what the user is typing
+ * and keeping only the best results. Options are matched, from best to worst, by:
+ *
+ * 1. Prefix, ignoring case (options whose case also matches rank first)
+ * 2. Subsequence, ignoring case: every character of the query appears in the option in order, so "tpw" matches
+ * "teleport_world"; options where the characters are closer together rank first
+ * 3. Edit distance: the query is within a small number of insertions, deletions or substitutions of a prefix of the
+ * option, so typos are tolerated. One edit is allowed for queries of 3 to 5 characters, and two for longer queries
+ *
+ * Options that match equally well are returned in the order they were given. Each option's lowercase characters and a
+ * bitset of its character bigrams are computed when the index is created, so scoring an option does not allocate; the
+ * bigram sets let most options be ruled out for edit distance matching without computing it. Only the best results are
+ * kept while scoring, in a bounded heap, so a query costs O(n log k) time and O(k) memory for k results.
+ */
+public final class RankedIndex {
+    private static final RankedIndex EMPTY = new RankedIndex(new String[0]);
+
+    //scores are tier * TIER + bonus, where 0 <= bonus < TIER
+    private static final int TIER = 1 << 20;
+    private static final int PREFIX = 3;
+    private static final int SUBSEQUENCE = 2;
+    private static final int EDIT = 1;
+
+    private final String[] options;
+    private final char[][] lowercase;
+    private final long[] bigrams;
+
+    private RankedIndex(String[] options) {
+        this.options = options;
+        this.lowercase = new char[options.length][];
+        this.bigrams = new long[options.length];
+
+        for(int i = 0; i < options.length; i++) {
+            lowercase[i] = lowercase(options[i]);
+            bigrams[i] = bigrams(lowercase[i], lowercase[i].length);
+        }
+    }
+
+    /**
+     * Creates a RankedIndex containing the given options, in iteration order.
+     * @param options The completion options, which may contain duplicates
+     * @return A new RankedIndex
+     */
+    public static @NotNull RankedIndex of(@NotNull Collection<String> options) {
+        Objects.requireNonNull(options, "options cannot be null");
+
+        Set<String> unique = new LinkedHashSet<>(options.size());
+        for(String option : options) {
+            unique.add(Objects.requireNonNull(option, "option cannot be null"));
+        }
+
+        return unique.isEmpty() ? EMPTY : new RankedIndex(unique.toArray(new String[0]));
+    }
+
+    /**
+     * Returns an empty RankedIndex.
+     * @return The empty RankedIndex
+     */
+    public static @NotNull RankedIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Finds the options that best match the given query.
+     * @param query What the user is typing
+     * @param limit The maximum number of options to return
+     * @return The best matching options, best first
+     */
+    public @NotNull List<String> rank(@NotNull String query, int limit) {
+        CompletionSink sink = new CompletionSink(limit);
+        rank(query, limit, sink);
+        return sink.getCompletions();
+    }
+
+    /**
+     * Adds the options that best match the given query to a sink, best first, stopping once the limit is reached or
+     * the sink is full.
+     * @param query What the user is typing
+     * @param limit The maximum number of options to add
+     * @param sink The sink to add options to
+     */
+    public void rank(@NotNull String query, int limit, @NotNull CompletionSink sink) {
+        Objects.requireNonNull(query, "query cannot be null");
+        Objects.requireNonNull(sink, "sink cannot be null");
+
+        limit = Math.min(limit, Math.min(sink.remaining(), options.length));
+        if(limit <= 0) {
+            return;
+        }
+
+        char[] lowerQuery = lowercase(query);
+        int maxEdits = lowerQuery.length < 3 ? 0 : (lowerQuery.length <= 5 ? 1 : 2);
+        long queryBigrams = bigrams(lowerQuery, lowerQuery.length);
+
+        //a column of the edit distance matrix, and the previous column
+        int[] column = new int[lowerQuery.length + 1];
+        int[] previous = new int[lowerQuery.length + 1];
+
+        //min-heap of the best options found so far, ordered by score and then by reverse position
+        int[] heapOptions = new int[limit];
+        int[] heapScores = new int[limit];
+        int size = 0;
+
+        for(int i = 0; i < options.length; i++) {
+            int score = score(query, lowerQuery, i, maxEdits, queryBigrams, column, previous);
+
+            if(score > 0) {
+                if(size < limit) {
+                    heapOptions[size] = i;
+                    heapScores[size] = score;
+                    siftUp(heapOptions, heapScores, size++);
+                }
+                else if(score > heapScores[0]) { //later options only replace the root if strictly better
+                    heapOptions[0] = i;
+                    heapScores[0] = score;
+                    siftDown(heapOptions, heapScores, size);
+                }
+            }
+        }
+
+        //pop from worst to best, filling the order from the back
+        int[] order = new int[size];
+        for(int i = size - 1; i >= 0; i--) {
+            order[i] = heapOptions[0];
+            heapOptions[0] = heapOptions[i];
+            heapScores[0] = heapScores[i];
+            siftDown(heapOptions, heapScores, i);
+        }
+
+        for(int option : order) {
+            sink.add(options[option]);
+        }
+    }
+
+    /**
+     * Gets the number of options in this index.
+     * @return The number of options
+     */
+    public int size() {
+        return options.length;
+    }
+
+    /* scores an option; higher is better, and 0 means it does not match */
+    private int score(String query, char[] lowerQuery, int index, int maxEdits, long queryBigrams, int[] column,
+                      int[] previous) {
+        char[] option = lowercase[index];
+        int length = lowerQuery.length;
+
+        if(option.length >= length && regionEquals(option, lowerQuery, length)) {
+            return PREFIX * TIER + (options[index].startsWith(query) ? 1 : 0);
+        }
+
+        //skipped is the number of option characters between the first and last matched characters that are unmatched
+        int matched = 0;
+        int first = -1;
+        for(int i = 0; i < option.length && matched < length; i++) {
+            if(option[i] == lowerQuery[matched]) {
+                if(matched++ == 0) {
+                    first = i;
+                }
+
+                if(matched == length) {
+                    int skipped = i - first + 1 - length;
+                    return SUBSEQUENCE * TIER + (TIER - 1 - Math.min(skipped, TIER - 1));
+                }
+            }
+        }
+
+        //each edit removes at most two of the query's bigrams from the option
+        if(maxEdits > 0 && Long.bitCount(queryBigrams & ~bigrams[index]) <= 2 * maxEdits) {
+            int distance = prefixDistance(option, lowerQuery, maxEdits, column, previous);
+
+            if(distance <= maxEdits) {
+                return EDIT * TIER + (maxEdits - distance);
+            }
+        }
+
+        return 0;
+    }
+
+    /* the smallest edit distance between the query and a prefix of the option, or maxEdits + 1 if it is larger */
+    private static int prefixDistance(char[] option, char[] query, int maxEdits, int[] column, int[] previous) {
+        int length = query.length;
+        for(int i = 0; i <= length; i++) {
+            previous[i] = i;
+        }
+
+        int best = length;
+        int end = Math.min(option.length, length + maxEdits);
+
+        for(int j = 1; j <= end; j++) {
+            column[0] = j;
+            int columnMin = j;
+
+            for(int i = 1; i <= length; i++) {
+                int cost = query[i - 1] == option[j - 1] ? 0 : 1;
+                column[i] = Math.min(Math.min(column[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+                columnMin = Math.min(columnMin, column[i]);
+            }
+
+            best = Math.min(best, column[length]);
+            if(columnMin > maxEdits) { //column minimums never decrease, so no later prefix can be close enough
+                break;
+            }
+
+            int[] swap = previous;
+            previous = column;
+            column = swap;
+        }
+
+        return Math.min(best, maxEdits + 1);
+    }
+
+    private static boolean regionEquals(char[] option, char[] query, int length) {
+        for(int i = 0; i < length; i++) {
+            if(option[i] != query[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static char[] lowercase(String string) {
+        char[] chars = new char[string.length()];
+        for(int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(string.charAt(i));
+        }
+
+        return chars;
+    }
+
+    private static long bigrams(char[] chars, int length) {
+        long bits = 0;
+        for(int i = 1; i < length; i++) {
+            bits |= 1L << ((chars[i - 1] * 31 + chars[i]) & 63);
+        }
+
+        return bits;
+    }
+
+    /* heap ordering: a is worse than b if it has a lower score, or the same score and a later position */
+    private static boolean worse(int[] heapOptions, int[] heapScores, int a, int b) {
+        return heapScores[a] < heapScores[b] || (heapScores[a] == heapScores[b] && heapOptions[a] > heapOptions[b]);
+    }
+
+    private static void siftUp(int[] heapOptions, int[] heapScores, int index) {
+        while(index > 0) {
+            int parent = (index - 1) >>> 1;
+
+            if(!worse(heapOptions, heapScores, index, parent)) {
+                return;
+            }
+
+            swap(heapOptions, heapScores, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heapOptions, int[] heapScores, int size) {
+        int index = 0;
+
+        while(true) {
+            int child = index * 2 + 1;
+            if(child >= size) {
+                return;
+            }
+
+            if(child + 1 < size && worse(heapOptions, heapScores, child + 1, child)) {
+                child++;
+            }
+
+            if(!worse(heapOptions, heapScores, child, index)) {
+                return;
+            }
+
+            swap(heapOptions, heapScores, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(int[] heapOptions, int[] heapScores, int a, int b) {
+        int option = heapOptions[a];
+        heapOptions[a] = heapOptions[b];
+        heapOptions[b] = option;
+
+        int score = heapScores[a];
+        heapScores[a] = heapScores[b];
+        heapScores[b] = score;
+    }
+}
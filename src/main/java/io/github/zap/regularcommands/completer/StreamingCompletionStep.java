@@ -0,0 +1,24 @@
+package io.github.zap.regularcommands.completer;
+
+import io.github.zap.regularcommands.commands.Context;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A CompletionStep that pushes its completions into a {@link CompletionSink} instead of returning a list, so that it
+ * can stop producing completions once the sink is full. When used through the list-returning method, the step is run
+ * with a sink that has no practical limit.
+ */
+@FunctionalInterface
+public interface StreamingCompletionStep extends CompletionStep {
+    @Override
+    void complete(@NotNull Context context, @NotNull String[] args, @NotNull CompletionSink sink);
+
+    @Override
+    default List<String> complete(@NotNull Context context, @NotNull String[] args) {
+        CompletionSink sink = new CompletionSink(Integer.MAX_VALUE);
+        complete(context, args, sink);
+        return sink.size() == 0 ? null : sink.getCompletions();
+    }
+}
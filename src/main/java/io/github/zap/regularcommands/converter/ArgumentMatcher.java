@@ -0,0 +1,18 @@
+package io.github.zap.regularcommands.converter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Tests whether a single input argument is accepted by a {@link Parameter}. Implementations must be stateless and
+ * should not allocate, as they are invoked for every argument of every form considered during matching and tab
+ * completion.
+ */
+@FunctionalInterface
+public interface ArgumentMatcher {
+    /**
+     * Determines if the entire argument is accepted by this matcher.
+     * @param argument The argument to test
+     * @return True if the argument is accepted, false otherwise
+     */
+    boolean matches(@NotNull CharSequence argument);
+}
@@ -0,0 +1,63 @@
+package io.github.zap.regularcommands.converter;
+
+import io.github.zap.regularcommands.commands.CommandForm;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A typed parameter kind, which validates and converts an argument in a single pass. ArgumentTypes can be supplied to
+ * {@link Parameter} in place of a regex and {@link ArgumentConverter}. See {@link ArgumentTypes} for built-in
+ * implementations.
+ *
+ * An ArgumentType distinguishes between two kinds of failure. If {@link #matches(CharSequence)} returns false, the
+ * argument does not have the right shape and the form simply does not match. If it returns true but
+ * {@link #parse(String)} returns null, the argument has the right shape but cannot be converted (for example, it
+ * overflows or is out of range), and the user is shown {@link #errorMessage(String)}.
+ * @param <T> The type of object arguments are converted to
+ */
+public interface ArgumentType<T> extends ArgumentMatcher, ArgumentConverter<T> {
+    /**
+     * Validates and converts the argument.
+     * @param argument The argument to convert
+     * @return The converted value, or null if the argument is not accepted
+     */
+    @Nullable T parse(@NotNull String argument);
+
+    /**
+     * Creates the error message shown when an argument matches, but cannot be converted.
+     * @param argument The argument that failed to convert
+     * @return A user-friendly error message
+     */
+    @NotNull Component errorMessage(@NotNull String argument);
+
+    /**
+     * Gets the completion options that should be offered for this type when the Parameter does not specify its own.
+     * @return A list of completion options, which may be empty
+     */
+    default @NotNull List<String> getCompletionOptions() {
+        return List.of();
+    }
+
+    /**
+     * Returns true if this type distinguishes between arguments that differ only in case. Parameters using a type
+     * that does not will also complete options without regard to case.
+     * @return True if this type is case-sensitive, false otherwise
+     */
+    default boolean isCaseSensitive() {
+        return true;
+    }
+
+    @Override
+    default @NotNull ConversionResult<T> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+        T value = parse(argument);
+
+        if(value != null) {
+            return ConversionResult.of(true, value, null);
+        }
+
+        return ConversionResult.of(false, null, errorMessage(argument));
+    }
+}
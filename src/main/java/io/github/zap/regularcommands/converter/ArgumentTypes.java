@@ -0,0 +1,633 @@
+package io.github.zap.regularcommands.converter;
+
+import io.github.zap.regularcommands.commands.Arguments;
+import io.github.zap.regularcommands.commands.CommandForm;
+import io.github.zap.regularcommands.commands.DefaultKeys;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Utility class containing built-in ArgumentTypes. Numeric types accept an optional sign followed by digits; arguments
+ * of that shape that overflow or fall outside of the type's range produce a conversion error rather than failing to
+ * match. The integer, long, double and boolean types are also {@link PrimitiveArgumentConverter}s, so the values they
+ * produce during dispatch are not boxed.
+ */
+public final class ArgumentTypes {
+    private static final class IntegerType implements ArgumentType<Integer>, IntArgumentConverter {
+        private static final long OVERFLOW = 1L << 31;
+        private static final long INVALID = Long.MIN_VALUE;
+
+        private final int min;
+        private final int max;
+
+        private IntegerType(int min, int max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public @Nullable Integer parse(@NotNull String argument) {
+            long value = parseValue(argument);
+            return value == INVALID ? null : (int)value;
+        }
+
+        @Override
+        public boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out,
+                                   int index) {
+            long value = parseValue(argument);
+            if(value == INVALID) {
+                return false;
+            }
+
+            out.setInt(index, (int)value);
+            return true;
+        }
+
+        @Override
+        public @NotNull ConversionResult<Integer> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+            return ArgumentType.super.convert(form, argument);
+        }
+
+        //returns the value, or INVALID if it is not accepted
+        private long parseValue(String argument) {
+            int length = argument.length();
+            int i = signLength(argument);
+
+            if(i == length) {
+                return INVALID;
+            }
+
+            long value = 0;
+            for(; i < length; i++) {
+                char c = argument.charAt(i);
+                if(c < '0' || c > '9') {
+                    return INVALID;
+                }
+
+                value = value * 10 + (c - '0');
+                if(value > OVERFLOW) {
+                    return INVALID;
+                }
+            }
+
+            if(argument.charAt(0) == '-') {
+                value = -value;
+            }
+
+            return value >= min && value <= max ? value : INVALID;
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            return isInteger(argument);
+        }
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            if(min == Integer.MIN_VALUE && max == Integer.MAX_VALUE) {
+                return Component.translatable(DefaultKeys.ERROR_CONVERT_INTEGER.key(), Component.text(argument));
+            }
+
+            return rangeError(argument, Component.text(min), Component.text(max));
+        }
+    }
+
+    private static final class LongType implements ArgumentType<Long>, LongArgumentConverter {
+        private static final long INVALID = 1; //accumulate never returns a positive value
+        private final long min;
+        private final long max;
+
+        private LongType(long min, long max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public @Nullable Long parse(@NotNull String argument) {
+            long result = accumulate(argument);
+            if(result == INVALID) {
+                return null;
+            }
+
+            long value = argument.charAt(0) == '-' ? result : -result;
+            return value >= min && value <= max ? value : null;
+        }
+
+        @Override
+        public boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out,
+                                   int index) {
+            long result = accumulate(argument);
+            if(result == INVALID) {
+                return false;
+            }
+
+            long value = argument.charAt(0) == '-' ? result : -result;
+            if(value < min || value > max) {
+                return false;
+            }
+
+            out.setLong(index, value);
+            return true;
+        }
+
+        @Override
+        public @NotNull ConversionResult<Long> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+            return ArgumentType.super.convert(form, argument);
+        }
+
+        //returns the negated magnitude of the argument, or INVALID if it is malformed or overflows
+        private static long accumulate(String argument) {
+            int length = argument.length();
+            int i = signLength(argument);
+
+            if(i == length) {
+                return INVALID;
+            }
+
+            //accumulate negatively, as Long.parseLong does, so that Long.MIN_VALUE can be represented
+            boolean negative = argument.charAt(0) == '-';
+            long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            long multiplicationLimit = limit / 10;
+            long result = 0;
+
+            for(; i < length; i++) {
+                char c = argument.charAt(i);
+                if(c < '0' || c > '9') {
+                    return INVALID;
+                }
+
+                int digit = c - '0';
+                if(result < multiplicationLimit) {
+                    return INVALID;
+                }
+
+                result *= 10;
+                if(result < limit + digit) {
+                    return INVALID;
+                }
+
+                result -= digit;
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            return isInteger(argument);
+        }
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            if(min == Long.MIN_VALUE && max == Long.MAX_VALUE) {
+                return Component.translatable(DefaultKeys.ERROR_CONVERT_LONG.key(), Component.text(argument));
+            }
+
+            return rangeError(argument, Component.text(min), Component.text(max));
+        }
+    }
+
+    private static final class DoubleType implements ArgumentType<Double>, DoubleArgumentConverter {
+        private final double min;
+        private final double max;
+
+        private DoubleType(double min, double max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public @Nullable Double parse(@NotNull String argument) {
+            double value = parseValue(argument);
+            return Double.isNaN(value) ? null : value;
+        }
+
+        @Override
+        public boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out,
+                                   int index) {
+            double value = parseValue(argument);
+            if(Double.isNaN(value)) {
+                return false;
+            }
+
+            out.setDouble(index, value);
+            return true;
+        }
+
+        @Override
+        public @NotNull ConversionResult<Double> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+            return ArgumentType.super.convert(form, argument);
+        }
+
+        //returns the value, or NaN if it is not accepted
+        private double parseValue(String argument) {
+            if(!matches(argument)) {
+                return Double.NaN;
+            }
+
+            //the argument is a strict subset of the syntax accepted by parseDouble, so this will not throw
+            double value = Double.parseDouble(argument);
+            return Double.isFinite(value) && value >= min && value <= max ? value : Double.NaN;
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            int length = argument.length();
+            int i = signLength(argument);
+
+            int integerStart = i;
+            i = skipDigits(argument, i);
+            int digits = i - integerStart;
+
+            if(i < length && argument.charAt(i) == '.') {
+                int fractionStart = ++i;
+                i = skipDigits(argument, i);
+                digits += i - fractionStart;
+            }
+
+            if(digits == 0) {
+                return false;
+            }
+
+            if(i < length && (argument.charAt(i) == 'e' || argument.charAt(i) == 'E')) {
+                i = i + 1 < length && (argument.charAt(i + 1) == '-' || argument.charAt(i + 1) == '+') ? i + 2 : i + 1;
+                int exponentStart = i;
+                i = skipDigits(argument, i);
+
+                if(i == exponentStart) {
+                    return false;
+                }
+            }
+
+            return i == length;
+        }
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            if(min == -Double.MAX_VALUE && max == Double.MAX_VALUE) {
+                return Component.translatable(DefaultKeys.ERROR_CONVERT_DOUBLE.key(), Component.text(argument));
+            }
+
+            return rangeError(argument, Component.text(String.valueOf(min)), Component.text(String.valueOf(max)));
+        }
+    }
+
+    private static final class BooleanType implements ArgumentType<Boolean>, BooleanArgumentConverter {
+        private static final List<String> OPTIONS = List.of("true", "false");
+
+        @Override
+        public @Nullable Boolean parse(@NotNull String argument) {
+            if(argument.equalsIgnoreCase("true")) {
+                return Boolean.TRUE;
+            }
+            else if(argument.equalsIgnoreCase("false")) {
+                return Boolean.FALSE;
+            }
+
+            return null;
+        }
+
+        @Override
+        public boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out,
+                                   int index) {
+            if(argument.equalsIgnoreCase("true")) {
+                out.setBoolean(index, true);
+                return true;
+            }
+            else if(argument.equalsIgnoreCase("false")) {
+                out.setBoolean(index, false);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public @NotNull ConversionResult<Boolean> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+            return ArgumentType.super.convert(form, argument);
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            return equalsIgnoreCase(argument, "true") || equalsIgnoreCase(argument, "false");
+        }
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            return Component.translatable(DefaultKeys.ERROR_CONVERT_BOOLEAN.key(), Component.text(argument));
+        }
+
+        @Override
+        public @NotNull List<String> getCompletionOptions() {
+            return OPTIONS;
+        }
+
+        @Override
+        public boolean isCaseSensitive() {
+            return false;
+        }
+    }
+
+    private static final class KeyedType<T> implements ArgumentType<T> {
+        private final KeyedLookup<T> lookup;
+        private final String errorKey;
+
+        private KeyedType(KeyedLookup<T> lookup, String errorKey) {
+            this.lookup = lookup;
+            this.errorKey = errorKey;
+        }
+
+        @Override
+        public @Nullable T parse(@NotNull String argument) {
+            return lookup.get(argument);
+        }
+
+        /*
+        any identifier-shaped argument matches, so that an unknown name is reported with the error message instead of
+        the form silently not matching. names of other shapes still match if they are in the lookup
+         */
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            return isIdentifier(argument) || lookup.containsKey(argument);
+        }
+
+        private static boolean isIdentifier(CharSequence argument) {
+            int length = argument.length();
+            if(length == 0) {
+                return false;
+            }
+
+            for(int i = 0; i < length; i++) {
+                char c = argument.charAt(i);
+
+                if(!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.' && c != ':') {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            return Component.translatable(errorKey, Component.text(argument));
+        }
+
+        @Override
+        public @NotNull List<String> getCompletionOptions() {
+            return lookup.getNames();
+        }
+
+        @Override
+        public boolean isCaseSensitive() {
+            return false;
+        }
+    }
+
+    private static final class UUIDType implements ArgumentType<UUID> {
+        private static final int LENGTH = 36;
+
+        @Override
+        public @Nullable UUID parse(@NotNull String argument) {
+            if(!matches(argument)) {
+                return null;
+            }
+
+            return new UUID(parseHex(argument, 0, 18), parseHex(argument, 19, LENGTH));
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            if(argument.length() != LENGTH) {
+                return false;
+            }
+
+            for(int i = 0; i < LENGTH; i++) {
+                char c = argument.charAt(i);
+
+                if(i == 8 || i == 13 || i == 18 || i == 23) {
+                    if(c != '-') {
+                        return false;
+                    }
+                }
+                else if(hexValue(c) < 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            return Component.translatable(DefaultKeys.ERROR_CONVERT_UUID.key(), Component.text(argument));
+        }
+
+        //parses 16 hex digits between start and end, skipping dashes
+        private static long parseHex(String argument, int start, int end) {
+            long value = 0;
+            for(int i = start; i < end; i++) {
+                char c = argument.charAt(i);
+                if(c != '-') {
+                    value = (value << 4) | hexValue(c);
+                }
+            }
+
+            return value;
+        }
+    }
+
+    public static final ArgumentType<Integer> INTEGER = new IntegerType(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    public static final ArgumentType<Long> LONG = new LongType(Long.MIN_VALUE, Long.MAX_VALUE);
+    public static final ArgumentType<Double> DOUBLE = new DoubleType(-Double.MAX_VALUE, Double.MAX_VALUE);
+    public static final ArgumentType<Boolean> BOOLEAN = new BooleanType();
+    public static final ArgumentType<UUID> UUID = new UUIDType();
+
+    /**
+     * Creates an ArgumentType that accepts integers between min and max, inclusive.
+     * @param min The minimum accepted value
+     * @param max The maximum accepted value
+     * @return An ArgumentType for the range
+     */
+    public static @NotNull ArgumentType<Integer> intRange(int min, int max) {
+        validateRange(min <= max);
+        return new IntegerType(min, max);
+    }
+
+    /**
+     * Creates an ArgumentType that accepts longs between min and max, inclusive.
+     * @param min The minimum accepted value
+     * @param max The maximum accepted value
+     * @return An ArgumentType for the range
+     */
+    public static @NotNull ArgumentType<Long> longRange(long min, long max) {
+        validateRange(min <= max);
+        return new LongType(min, max);
+    }
+
+    /**
+     * Creates an ArgumentType that accepts finite doubles between min and max, inclusive.
+     * @param min The minimum accepted value
+     * @param max The maximum accepted value
+     * @return An ArgumentType for the range
+     */
+    public static @NotNull ArgumentType<Double> doubleRange(double min, double max) {
+        validateRange(min <= max);
+        return new DoubleType(min, max);
+    }
+
+    /**
+     * Creates an ArgumentType that accepts the names of an enum's constants, case ignored. The lowercase names are
+     * used as completion options. Other arguments made up of letters, digits and {@code _-.:} still match, but fail
+     * to convert with {@link DefaultKeys#ERROR_CONVERT_ENUM}'s message.
+     * @param enumClass The enum class
+     * @param <E> The type of the enum
+     * @return An ArgumentType for the enum
+     */
+    public static <E extends Enum<E>> @NotNull ArgumentType<E> enumType(@NotNull Class<E> enumClass) {
+        return enumType(enumClass, Map.of());
+    }
+
+    /**
+     * Creates an ArgumentType that accepts the names of an enum's constants, along with the given aliases, case
+     * ignored. The lowercase names, followed by the aliases, are used as completion options.
+     * @param enumClass The enum class
+     * @param aliases Additional names for constants
+     * @param <E> The type of the enum
+     * @return An ArgumentType for the enum
+     * @throws IllegalArgumentException if an alias is the same as another name, ignoring case
+     */
+    public static <E extends Enum<E>> @NotNull ArgumentType<E> enumType(@NotNull Class<E> enumClass,
+                                                                        @NotNull Map<String, E> aliases) {
+        Objects.requireNonNull(enumClass, "enumClass cannot be null");
+        Objects.requireNonNull(aliases, "aliases cannot be null");
+
+        Map<String, E> names = new LinkedHashMap<>();
+        for(E constant : enumClass.getEnumConstants()) {
+            names.put(constant.name().toLowerCase(Locale.ROOT), constant);
+        }
+
+        return new KeyedType<>(KeyedLookup.of(withAliases(names, aliases)), DefaultKeys.ERROR_CONVERT_ENUM.key());
+    }
+
+    /**
+     * Creates an ArgumentType that accepts a fixed set of names, case ignored, converting each to its value. The names
+     * are used as completion options, in iteration order. As with {@link #enumType(Class)}, unknown names fail to
+     * convert with {@link DefaultKeys#ERROR_CONVERT_ENUM}'s message rather than not matching.
+     * @param names A map from names to values; several names may map to the same value
+     * @param <T> The type of value
+     * @return An ArgumentType for the names
+     * @throws IllegalArgumentException if two names differ only in case
+     */
+    public static <T> @NotNull ArgumentType<T> keyedType(@NotNull Map<String, ? extends T> names) {
+        return new KeyedType<>(KeyedLookup.of(names), DefaultKeys.ERROR_CONVERT_ENUM.key());
+    }
+
+    /**
+     * Creates an ArgumentType that accepts a fixed set of names, case ignored, with a custom error message shown for
+     * unknown names.
+     * @param names A map from names to values; several names may map to the same value
+     * @param errorKey The translation key of the error message, which receives the argument as its only argument
+     * @param <T> The type of value
+     * @return An ArgumentType for the names
+     * @throws IllegalArgumentException if two names differ only in case
+     */
+    public static <T> @NotNull ArgumentType<T> keyedType(@NotNull Map<String, ? extends T> names,
+                                                         @NotNull String errorKey) {
+        return new KeyedType<>(KeyedLookup.of(names), Objects.requireNonNull(errorKey, "errorKey cannot be null"));
+    }
+
+    private static <E> Map<String, E> withAliases(Map<String, E> names, Map<String, E> aliases) {
+        for(Map.Entry<String, E> alias : aliases.entrySet()) {
+            Objects.requireNonNull(alias.getKey(), "alias cannot be null");
+            Objects.requireNonNull(alias.getValue(), "aliased value cannot be null");
+
+            if(names.putIfAbsent(alias.getKey(), alias.getValue()) != null) {
+                throw new IllegalArgumentException("alias " + alias.getKey() + " is already a name");
+            }
+        }
+
+        return names;
+    }
+
+    private static void validateRange(boolean valid) {
+        if(!valid) {
+            throw new IllegalArgumentException("min must be less than or equal to max");
+        }
+    }
+
+    private static Component rangeError(String argument, Component min, Component max) {
+        return Component.translatable(DefaultKeys.ERROR_CONVERT_RANGE.key(), Component.text(argument), min, max);
+    }
+
+    private static int signLength(CharSequence argument) {
+        if(argument.length() > 0) {
+            char first = argument.charAt(0);
+            if(first == '-' || first == '+') {
+                return 1;
+            }
+        }
+
+        return 0;
+    }
+
+    private static boolean isInteger(CharSequence argument) {
+        int length = argument.length();
+        int i = signLength(argument);
+        return i < length && skipDigits(argument, i) == length;
+    }
+
+    private static int hexValue(char c) {
+        if(c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        else if(c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        else if(c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+
+        return -1;
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence argument, String value) {
+        int length = value.length();
+        if(argument.length() != length) {
+            return false;
+        }
+
+        for(int i = 0; i < length; i++) {
+            char a = argument.charAt(i);
+            char b = value.charAt(i);
+
+            if(a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int skipDigits(CharSequence argument, int i) {
+        int length = argument.length();
+        while(i < length) {
+            char c = argument.charAt(i);
+            if(c < '0' || c > '9') {
+                break;
+            }
+
+            i++;
+        }
+
+        return i;
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.zap.regularcommands.converter;
+
+import io.github.zap.regularcommands.commands.Arguments;
+import io.github.zap.regularcommands.commands.CommandForm;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A converter for boolean arguments, which stores its result with {@link Arguments#setBoolean(int, boolean)} so that it
+ * is not boxed. Forms can read the result with {@link Arguments#getBoolean(int)}.
+ */
+public interface BooleanArgumentConverter extends PrimitiveArgumentConverter<Boolean> {
+    @Override
+    default @NotNull ConversionResult<Boolean> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+        Arguments out = new Arguments(1);
+
+        if(convertInto(form, argument, out, 0)) {
+            return ConversionResult.of(true, out.getBoolean(0), null);
+        }
+
+        return ConversionResult.of(false, null, errorMessage(argument));
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.zap.regularcommands.converter;
+
+import io.github.zap.regularcommands.commands.Arguments;
+import io.github.zap.regularcommands.commands.CommandForm;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A converter for int arguments, which stores its result with {@link Arguments#setInt(int, int)} so that it is not
+ * boxed. Forms can read the result with {@link Arguments#getInt(int)}.
+ */
+public interface IntArgumentConverter extends PrimitiveArgumentConverter<Integer> {
+    @Override
+    default @NotNull ConversionResult<Integer> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+        Arguments out = new Arguments(1);
+
+        if(convertInto(form, argument, out, 0)) {
+            return ConversionResult.of(true, out.getInt(0), null);
+        }
+
+        return ConversionResult.of(false, null, errorMessage(argument));
+    }
+}
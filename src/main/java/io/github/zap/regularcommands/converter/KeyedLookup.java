@@ -0,0 +1,245 @@
+package io.github.zap.regularcommands.converter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable, case-insensitive map from names to values, built as a perfect hash table: when the lookup is created,
+ * names are grouped into buckets, and each bucket is given a displacement that sends its names to slots no other name
+ * occupies. Looking up a name then hashes it once, reads its bucket's displacement, and compares the name against the
+ * single candidate in its slot, folding case one character at a time. Lookups neither allocate nor convert the
+ * argument's case. Case is folded the same way as {@link String#equalsIgnoreCase(String)}.
+ *
+ * Several names (for example, a canonical name and its aliases) may map to the same value.
+ * @param <T> The type of value
+ */
+public final class KeyedLookup<T> {
+    private static final int MAXIMUM_DISPLACEMENT = 1 << 16;
+
+    private final int[] displacements;
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final List<String> names;
+
+    private KeyedLookup(int[] displacements, String[] keys, Object[] values, List<String> names) {
+        this.displacements = displacements;
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.names = names;
+    }
+
+    /**
+     * Creates a KeyedLookup from the given names and values. The names are kept, in iteration order, as completion
+     * options; use a LinkedHashMap to control their order.
+     * @param entries A map from names to values
+     * @param <T> The type of value
+     * @return A new KeyedLookup
+     * @throws IllegalArgumentException if two names differ only in case
+     */
+    public static <T> @NotNull KeyedLookup<T> of(@NotNull Map<String, ? extends T> entries) {
+        Objects.requireNonNull(entries, "entries cannot be null");
+
+        int size = entries.size();
+        String[] names = new String[size];
+        Object[] entryValues = new Object[size];
+        Map<String, String> folded = new HashMap<>(size * 4 / 3 + 1);
+
+        int i = 0;
+        for(Map.Entry<String, ? extends T> entry : entries.entrySet()) {
+            String name = Objects.requireNonNull(entry.getKey(), "name cannot be null");
+            String previous = folded.put(fold(name), name);
+
+            if(previous != null) {
+                throw new IllegalArgumentException("names " + previous + " and " + name + " differ only in case");
+            }
+
+            names[i] = name;
+            entryValues[i++] = Objects.requireNonNull(entry.getValue(), "value cannot be null");
+        }
+
+        List<String> nameList = new ArrayList<>(size);
+        Collections.addAll(nameList, names);
+        nameList = Collections.unmodifiableList(nameList);
+
+        //a load factor of at most 0.5 makes a displacement easy to find for every bucket
+        for(int capacity = Integer.highestOneBit(Math.max(1, size * 2 - 1)) << 1; ; capacity <<= 1) {
+            KeyedLookup<T> lookup = build(names, entryValues, capacity, nameList);
+
+            if(lookup != null) {
+                return lookup;
+            }
+        }
+    }
+
+    /* returns null if some bucket could not be displaced into free slots */
+    private static <T> KeyedLookup<T> build(String[] names, Object[] entryValues, int capacity, List<String> nameList) {
+        int bucketCount = Math.max(1, names.length);
+        long[] hashes = new long[names.length];
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+
+        for(int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>(2));
+        }
+
+        for(int i = 0; i < names.length; i++) {
+            hashes[i] = hash(names[i]);
+            buckets.get(bucket(hashes[i], bucketCount)).add(i);
+        }
+
+        //displace the largest buckets first, while the table is emptiest
+        Integer[] order = new Integer[bucketCount];
+        for(int i = 0; i < bucketCount; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+        int mask = capacity - 1;
+        int[] displacements = new int[bucketCount];
+        String[] keys = new String[capacity];
+        Object[] values = new Object[capacity];
+        int[] slots = new int[names.length];
+
+        for(int bucket : order) {
+            List<Integer> members = buckets.get(bucket);
+            if(members.isEmpty()) {
+                break;
+            }
+
+            int displacement = 0;
+            while(!fits(members, hashes, displacement, mask, keys, slots)) {
+                if(++displacement == MAXIMUM_DISPLACEMENT) {
+                    return null;
+                }
+            }
+
+            displacements[bucket] = displacement;
+            for(int i = 0; i < members.size(); i++) {
+                int member = members.get(i);
+                keys[slots[i]] = names[member];
+                values[slots[i]] = entryValues[member];
+            }
+        }
+
+        return new KeyedLookup<>(displacements, keys, values, nameList);
+    }
+
+    /* determines if every member of a bucket lands on a distinct free slot, storing the slots */
+    private static boolean fits(List<Integer> members, long[] hashes, int displacement, int mask, String[] keys,
+                                int[] slots) {
+        for(int i = 0; i < members.size(); i++) {
+            int slot = slot(hashes[members.get(i)], displacement, mask);
+
+            if(keys[slot] != null) {
+                return false;
+            }
+
+            for(int j = 0; j < i; j++) {
+                if(slots[j] == slot) {
+                    return false;
+                }
+            }
+
+            slots[i] = slot;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the value associated with a name, case ignored.
+     * @param name The name
+     * @return The value, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(@NotNull CharSequence name) {
+        long hash = hash(name);
+        int slot = slot(hash, displacements[bucket(hash, displacements.length)], mask);
+        String key = keys[slot];
+        return key != null && equalsFolded(key, name) ? (T)values[slot] : null;
+    }
+
+    /**
+     * Returns true if a name is present, case ignored.
+     * @param name The name
+     * @return True if the name has a value, false otherwise
+     */
+    public boolean containsKey(@NotNull CharSequence name) {
+        return get(name) != null;
+    }
+
+    /**
+     * Gets every name in this lookup, in the order they were given.
+     * @return An unmodifiable list of names
+     */
+    public @NotNull List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Gets the number of names in this lookup.
+     * @return The number of names
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /* 64-bit FNV-1a over case-folded characters */
+    private static long hash(CharSequence name) {
+        long hash = 0xCBF29CE484222325L;
+        for(int i = 0; i < name.length(); i++) {
+            hash = (hash ^ fold(name.charAt(i))) * 0x100000001B3L;
+        }
+
+        return hash;
+    }
+
+    private static int bucket(long hash, int bucketCount) {
+        return (int)((hash >>> 32) % bucketCount);
+    }
+
+    private static int slot(long hash, int displacement, int mask) {
+        long mixed = (hash ^ (displacement * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        return (int)(mixed ^ (mixed >>> 31)) & mask;
+    }
+
+    private static boolean equalsFolded(String key, CharSequence name) {
+        if(key.length() != name.length()) {
+            return false;
+        }
+
+        for(int i = 0; i < key.length(); i++) {
+            char a = key.charAt(i);
+            char b = name.charAt(i);
+
+            if(a != b && fold(a) != fold(b)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(String string) {
+        StringBuilder builder = new StringBuilder(string.length());
+        for(int i = 0; i < string.length(); i++) {
+            builder.append(fold(string.charAt(i)));
+        }
+
+        return builder.toString();
+    }
+}
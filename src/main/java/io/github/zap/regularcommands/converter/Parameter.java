@@ -1,5 +1,8 @@
 package io.github.zap.regularcommands.converter;
 
+import io.github.zap.regularcommands.completer.PrefixIndex;
+import io.github.zap.regularcommands.completer.RankedIndex;
+import io.github.zap.regularcommands.util.Matchers;
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.NotNull;
 
@@ -17,6 +20,9 @@ import java.util.regex.Pattern;
  * are equality matched, do not supply a default value, and are used to match exactly 1 input argument. Vararg
  * parameters are regex-matched, do not supply a default value, and are used to match 0 or more input arguments.
  * Finally, optional parameters are regex-matched, supply a default value, and are used to match 0 or 1 input arguments.
+ *
+ * Standard, vararg and optional parameters may be defined by an {@link ArgumentType} instead of a regex and converter,
+ * in which case the argument is matched and converted in a single pass.
  */
 public class Parameter {
     public enum ParameterType {
@@ -27,10 +33,14 @@ public class Parameter {
     }
 
     private final Pattern pattern;
+    private final ArgumentMatcher matcher;
     private final String match;
     private final Component usage;
     private final ArgumentConverter<Object> converter;
+    private final ArgumentType<?> argumentType;
     private final List<String> staticCompletionOptions;
+    private final PrefixIndex completionIndex;
+    private volatile RankedIndex rankedIndex; //built on first use, since most parameters are never ranked
 
     private final ParameterType type;
     private final String defaultValue;
@@ -42,11 +52,14 @@ public class Parameter {
             case SIMPLE:
                 this.pattern = null;
                 this.match = Objects.requireNonNull(definition, "definition cannot be null for ParameterType.SIMPLE");
+                this.matcher = Matchers.literal(definition);
                 this.staticCompletionOptions = List.of(definition);
                 this.defaultValue = null;
+                usage = usage == null ? Component.text(definition) : usage; //simple parameters describe themselves
                 break;
             case OPTIONAL:
                 this.pattern = Pattern.compile(definition);
+                this.matcher = Matchers.of(pattern);
                 this.match = null;
                 this.staticCompletionOptions = staticCompletionOptions;
                 this.defaultValue = Objects.requireNonNull(defaultValue, "defaultValue cannot be null for ParameterType.OPTIONAL");
@@ -55,14 +68,35 @@ public class Parameter {
             case VARARG:
             default:
                 this.pattern = Pattern.compile(definition);
+                this.matcher = Matchers.of(pattern);
                 this.match = null;
                 this.staticCompletionOptions = staticCompletionOptions;
                 this.defaultValue = null;
                 break;
         }
 
-        this.usage = Objects.requireNonNull(usage, "usage cannot be null for ParameterType.OPTIONAL");
+        this.usage = Objects.requireNonNull(usage, "usage cannot be null");
         this.converter = (ArgumentConverter<Object>) converter;
+        this.argumentType = null;
+        this.completionIndex = this.staticCompletionOptions == null ? PrefixIndex.empty() :
+                PrefixIndex.of(this.staticCompletionOptions);
+        this.type = type;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Parameter(ArgumentType<?> argumentType, Component usage, String defaultValue,
+                      List<String> staticCompletionOptions, ParameterType type) {
+        this.argumentType = Objects.requireNonNull(argumentType, "argumentType cannot be null");
+        this.usage = Objects.requireNonNull(usage, "usage cannot be null");
+        this.pattern = null;
+        this.matcher = argumentType;
+        this.match = null;
+        this.converter = (ArgumentConverter<Object>) argumentType;
+        this.staticCompletionOptions = staticCompletionOptions == null ? argumentType.getCompletionOptions() :
+                staticCompletionOptions;
+        this.completionIndex = PrefixIndex.of(this.staticCompletionOptions, !argumentType.isCaseSensitive());
+        this.defaultValue = type == ParameterType.OPTIONAL ? Objects.requireNonNull(defaultValue,
+                "defaultValue cannot be null for ParameterType.OPTIONAL") : null;
         this.type = type;
     }
 
@@ -242,6 +276,127 @@ public class Parameter {
         this(regex, usage, null, null, null, ParameterType.STANDARD);
     }
 
+    /**
+     * Creates a new typed optional parameter. The argument is validated and converted in a single step by the
+     * ArgumentType, which also acts as this parameter's converter.
+     * @param argumentType The ArgumentType used to match and convert this parameter
+     * @param usage The usage of this parameter, which should explain what the parameter does in a few words. Should be
+     *              formatted something like this:
+     *
+     *              [example-name]
+     *              [example_name]
+     *              [test name]
+     *
+     *              Parameter usages are delimited by spaces. Include brackets or quotation marks to avoid confusing
+     *              users.
+     * @param defaultValue The value that will be used if the user does not supply this parameter
+     * @param staticCompletionOptions A list of completion options that will appear when a user tries to tab complete
+     *                                on this parameter
+     */
+    public Parameter(ArgumentType<?> argumentType, Component usage, String defaultValue,
+                     List<String> staticCompletionOptions) {
+        this(argumentType, usage, defaultValue, staticCompletionOptions, ParameterType.OPTIONAL);
+    }
+
+    /**
+     * Creates a new typed optional parameter. The argument is validated and converted in a single step by the
+     * ArgumentType, which also acts as this parameter's converter.
+     * @param argumentType The ArgumentType used to match and convert this parameter
+     * @param usage The usage of this parameter, which should explain what the parameter does in a few words. Should be
+     *              formatted something like this:
+     *
+     *              [example-name]
+     *              [example_name]
+     *              [test name]
+     *
+     *              Parameter usages are delimited by spaces. Include brackets or quotation marks to avoid confusing
+     *              users.
+     * @param defaultValue The value that will be used if the user does not supply this parameter
+     */
+    public Parameter(ArgumentType<?> argumentType, Component usage, String defaultValue) {
+        this(argumentType, usage, defaultValue, null, ParameterType.OPTIONAL);
+    }
+
+    /**
+     * Creates a new typed vararg or standard parameter. The argument is validated and converted in a single step by
+     * the ArgumentType, which also acts as this parameter's converter.
+     * @param argumentType The ArgumentType used to match and convert this parameter
+     * @param usage The usage of this parameter, which should explain what the parameter does in a few words. Should be
+     *              formatted something like this:
+     *
+     *              [example-name]
+     *              [example_name]
+     *              [test name]
+     *
+     *              Parameter usages are delimited by spaces. Include brackets or quotation marks to avoid confusing
+     *              users.
+     * @param staticCompletionOptions A list of completion options that will appear when a user tries to tab complete
+     *                                on this parameter
+     * @param isVararg Whether or not the parameter is variable-argument (if it can match any number of user arguments)
+     */
+    public Parameter(ArgumentType<?> argumentType, Component usage, List<String> staticCompletionOptions,
+                     boolean isVararg) {
+        this(argumentType, usage, null, staticCompletionOptions, isVararg ? ParameterType.VARARG :
+                ParameterType.STANDARD);
+    }
+
+    /**
+     * Creates a new typed standard parameter. The argument is validated and converted in a single step by the
+     * ArgumentType, which also acts as this parameter's converter.
+     * @param argumentType The ArgumentType used to match and convert this parameter
+     * @param usage The usage of this parameter, which should explain what the parameter does in a few words. Should be
+     *              formatted something like this:
+     *
+     *              [example-name]
+     *              [example_name]
+     *              [test name]
+     *
+     *              Parameter usages are delimited by spaces. Include brackets or quotation marks to avoid confusing
+     *              users.
+     * @param staticCompletionOptions A list of completion options that will appear when a user tries to tab complete
+     *                                on this parameter
+     */
+    public Parameter(ArgumentType<?> argumentType, Component usage, List<String> staticCompletionOptions) {
+        this(argumentType, usage, null, staticCompletionOptions, ParameterType.STANDARD);
+    }
+
+    /**
+     * Creates a new typed vararg or standard parameter. The argument is validated and converted in a single step by
+     * the ArgumentType, which also acts as this parameter's converter.
+     * @param argumentType The ArgumentType used to match and convert this parameter
+     * @param usage The usage of this parameter, which should explain what the parameter does in a few words. Should be
+     *              formatted something like this:
+     *
+     *              [example-name]
+     *              [example_name]
+     *              [test name]
+     *
+     *              Parameter usages are delimited by spaces. Include brackets or quotation marks to avoid confusing
+     *              users.
+     * @param isVararg Whether or not the parameter is variable-argument (if it can match any number of user arguments)
+     */
+    public Parameter(ArgumentType<?> argumentType, Component usage, boolean isVararg) {
+        this(argumentType, usage, null, null, isVararg ? ParameterType.VARARG : ParameterType.STANDARD);
+    }
+
+    /**
+     * Creates a new typed standard parameter. The argument is validated and converted in a single step by the
+     * ArgumentType, which also acts as this parameter's converter.
+     * @param argumentType The ArgumentType used to match and convert this parameter
+     * @param usage The usage of this parameter, which should explain what the parameter does in a few words. Should be
+     *              formatted something like this:
+     *
+     *              [example-name]
+     *              [example_name]
+     *              [test name]
+     *
+     *              Parameter usages are delimited by spaces. Include brackets or quotation marks to avoid confusing
+     *              users.
+     */
+    public Parameter(ArgumentType<?> argumentType, Component usage) {
+        this(argumentType, usage, null, null, ParameterType.STANDARD);
+    }
+
     /**
      * Creates a new simple parameter.
      * along with a converter to convert user input.
@@ -270,12 +425,30 @@ public class Parameter {
 
     /**
      * Gets the Pattern used to match input arguments.
-     * @return The pattern used to test user input. This will be null if this Parameter is simple
+     * @return The pattern used to test user input. This will be null if this Parameter is simple or typed
      */
     public Pattern getPattern() {
         return pattern;
     }
 
+    /**
+     * Gets the ArgumentType used to match and convert input arguments in a single step.
+     * @return This parameter's ArgumentType, or null if it was defined by a regex or match string
+     */
+    public ArgumentType<?> getArgumentType() {
+        return argumentType;
+    }
+
+    /**
+     * Gets the ArgumentMatcher used to test input arguments. For simple parameters, it performs an equality check
+     * against the match string; otherwise, it is equivalent to fully matching the Pattern, but common expressions are
+     * replaced with faster, non-allocating implementations (see {@link Matchers}).
+     * @return The matcher used to test user input
+     */
+    public @NotNull ArgumentMatcher getMatcher() {
+        return matcher;
+    }
+
     /**
      * Returns the string used to perform a simple equality check on the argument.
      * @return If this Parameter is simple, a String that should be used to check for equality with the argument
@@ -289,13 +462,38 @@ public class Parameter {
     public @NotNull Component getUsage() { return usage; }
 
     /**
-     * Gets a copy of the static tab completion options for this parameter.
+     * Gets a copy of the static tab completion options for this parameter. Completers should prefer
+     * {@link #getCompletionIndex()}, which does not copy.
      * @return The built-in tab completion options that should be shown for this parameter
      */
     public @NotNull List<String> getStaticCompletionOptions() {
         return staticCompletionOptions == null ? new ArrayList<>() : new ArrayList<>(staticCompletionOptions);
     }
 
+    /**
+     * Gets the static tab completion options for this parameter as a sorted index, which is built once and answers
+     * prefix queries without copying. The index ignores case if this parameter's ArgumentType is not case-sensitive.
+     * @return The static completion options, indexed for prefix queries
+     */
+    public @NotNull PrefixIndex getCompletionIndex() {
+        return completionIndex;
+    }
+
+    /**
+     * Gets the static tab completion options for this parameter as a RankedIndex, for fuzzy completion. The index is
+     * built the first time it is requested, and contains the options in the same order as getCompletionIndex.
+     * @return The static completion options, indexed for ranked queries
+     */
+    public @NotNull RankedIndex getRankedIndex() {
+        RankedIndex index = rankedIndex;
+
+        if(index == null) { //racing threads may each build an index, but they are equivalent
+            rankedIndex = index = RankedIndex.of(completionIndex.getOptions());
+        }
+
+        return index;
+    }
+
     /**
      * Returns the type of this parameter.
      * @return the type of this parameter
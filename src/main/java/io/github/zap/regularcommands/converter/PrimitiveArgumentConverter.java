@@ -0,0 +1,31 @@
+package io.github.zap.regularcommands.converter;
+
+import io.github.zap.regularcommands.commands.Arguments;
+import io.github.zap.regularcommands.commands.CommandForm;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An ArgumentConverter that writes its result directly into a slot of an {@link Arguments} instance, so that primitive
+ * values are never boxed during dispatch. Implement one of its subinterfaces, such as {@link IntArgumentConverter},
+ * rather than this interface directly.
+ * @param <T> The boxed type of the values this converter produces
+ */
+public interface PrimitiveArgumentConverter<T> extends ArgumentConverter<T> {
+    /**
+     * Converts the argument, storing the result in the given slot if conversion succeeds.
+     * @param form The form being matched
+     * @param argument The argument to convert
+     * @param out The arguments to write the result to
+     * @param index The index of the slot to write the result to
+     * @return true if the argument was converted, false otherwise
+     */
+    boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out, int index);
+
+    /**
+     * Creates the error message shown when an argument cannot be converted.
+     * @param argument The argument that failed to convert
+     * @return A user-friendly error message
+     */
+    @NotNull Component errorMessage(@NotNull String argument);
+}
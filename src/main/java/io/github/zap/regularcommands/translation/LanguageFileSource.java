@@ -0,0 +1,377 @@
+package io.github.zap.regularcommands.translation;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.translation.Translator;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A translation source that reads language files lazily. Files are named after their locale, such as en_US.properties
+ * or de_DE.json (files with other names are ignored), and are only indexed when they are added; a locale's file is read
+ * and compiled into {@link MessageTemplate}s the first time one of its translations is needed. Only a bounded number of
+ * locales are kept loaded at once, evicting the least recently used; the default locale is never evicted, since every
+ * other locale falls back to it.
+ *
+ * Properties files are read as UTF-8. JSON files must contain an object whose values are strings or nested objects;
+ * nested keys are joined with dots, so {"feedback": {"error": "..."}} defines feedback.error. Translations that cannot
+ * be compiled are skipped with a warning, and a file that cannot be read is treated as empty.
+ *
+ * When files for the same locale are added more than once, the file added last is used.
+ */
+public final class LanguageFileSource implements Translator, TemplateSource {
+    private static final String PROPERTIES_EXTENSION = ".properties";
+    private static final String JSON_EXTENSION = ".json";
+    private static final Pattern LOCALE_NAME = Pattern.compile("[a-zA-Z]{2,3}([_-][a-zA-Z0-9]+)*");
+    private static final Key SOURCE_KEY = Key.key("io.github.zap", "regularcommands.translation.files");
+
+    private interface Opener {
+        InputStream open() throws IOException;
+    }
+
+    private static final class LanguageFile {
+        private final String name;
+        private final Opener opener;
+
+        private LanguageFile(String name, Opener opener) {
+            this.name = name;
+            this.opener = opener;
+        }
+    }
+
+    private final Key name;
+    private final Locale defaultLocale;
+    private final Logger logger;
+    private final Map<Locale, LanguageFile> files;
+    private final Map<Locale, Map<String, MessageTemplate>> loaded; //guarded by itself
+    private volatile Map<String, MessageTemplate> defaultTemplates;
+    private final AtomicLong version;
+
+    /**
+     * Creates a new LanguageFileSource with no files.
+     * @param name The name of this translation source
+     * @param defaultLocale The locale to fall back to when a key has no translation in the requested locale
+     * @param maximumLoadedLocales The maximum number of locales to keep loaded, besides the default locale
+     * @param logger The logger used to report files that cannot be read
+     */
+    public LanguageFileSource(@NotNull Key name, @NotNull Locale defaultLocale, int maximumLoadedLocales,
+                              @NotNull Logger logger) {
+        if(maximumLoadedLocales <= 0) {
+            throw new IllegalArgumentException("maximumLoadedLocales must be > 0");
+        }
+
+        this.name = Objects.requireNonNull(name, "name cannot be null");
+        this.defaultLocale = Objects.requireNonNull(defaultLocale, "defaultLocale cannot be null");
+        this.logger = Objects.requireNonNull(logger, "logger cannot be null");
+        this.files = new ConcurrentHashMap<>();
+        this.version = new AtomicLong();
+        this.loaded = new LinkedHashMap<>(16, 0.75F, true) { //access order, so the eldest entry is least recently used
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Locale, Map<String, MessageTemplate>> eldest) {
+                return size() > maximumLoadedLocales;
+            }
+        };
+    }
+
+    /**
+     * Creates a LanguageFileSource for a plugin, indexing the language files in a directory of the plugin's jar and
+     * then the same directory in its data folder, so files in the data folder override those in the jar.
+     * @param plugin The plugin
+     * @param directory The directory containing language files, such as "lang"
+     * @param defaultLocale The locale to fall back to when a key has no translation in the requested locale
+     * @param maximumLoadedLocales The maximum number of locales to keep loaded, besides the default locale
+     * @return A new LanguageFileSource
+     */
+    public static @NotNull LanguageFileSource forPlugin(@NotNull Plugin plugin, @NotNull String directory,
+                                                        @NotNull Locale defaultLocale, int maximumLoadedLocales) {
+        Objects.requireNonNull(plugin, "plugin cannot be null");
+        Objects.requireNonNull(directory, "directory cannot be null");
+
+        LanguageFileSource source = new LanguageFileSource(SOURCE_KEY, defaultLocale, maximumLoadedLocales,
+                plugin.getLogger());
+        source.addResources(plugin, directory);
+        source.addDirectory(new File(plugin.getDataFolder(), directory).toPath());
+        return source;
+    }
+
+    /**
+     * Indexes the language files in a directory of a plugin's jar.
+     * @param plugin The plugin
+     * @param directory The directory in the jar
+     */
+    public void addResources(@NotNull Plugin plugin, @NotNull String directory) {
+        Objects.requireNonNull(plugin, "plugin cannot be null");
+        String prefix = Objects.requireNonNull(directory, "directory cannot be null").isEmpty() ? "" :
+                directory.endsWith("/") ? directory : directory + "/";
+
+        CodeSource codeSource = plugin.getClass().getProtectionDomain().getCodeSource();
+        if(codeSource == null || codeSource.getLocation() == null) {
+            logger.warning("unable to locate the jar of plugin " + plugin.getName());
+            return;
+        }
+
+        File jar;
+        try {
+            jar = new File(codeSource.getLocation().toURI());
+        }
+        catch (URISyntaxException | IllegalArgumentException exception) {
+            logger.log(Level.WARNING, "unable to locate the jar of plugin " + plugin.getName(), exception);
+            return;
+        }
+
+        try(ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+
+            while(entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String path = entry.getName();
+
+                if(!entry.isDirectory() && path.startsWith(prefix) && path.indexOf('/', prefix.length()) == -1) {
+                    index(path.substring(prefix.length()), path, () -> {
+                        InputStream stream = plugin.getResource(path);
+
+                        if(stream == null) {
+                            throw new IOException("resource not found");
+                        }
+
+                        return stream;
+                    });
+                }
+            }
+        }
+        catch (IOException exception) {
+            logger.log(Level.WARNING, "unable to index language files in the jar of plugin " + plugin.getName(),
+                    exception);
+        }
+    }
+
+    /**
+     * Indexes the language files in a directory. Nothing is indexed if the directory does not exist.
+     * @param directory The directory
+     */
+    public void addDirectory(@NotNull Path directory) {
+        Objects.requireNonNull(directory, "directory cannot be null");
+
+        if(!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try(Stream<Path> paths = Files.list(directory)) {
+            paths.filter(Files::isRegularFile).forEach(path -> index(path.getFileName().toString(), path.toString(),
+                    () -> Files.newInputStream(path)));
+        }
+        catch (IOException exception) {
+            logger.log(Level.WARNING, "unable to index language files in " + directory, exception);
+        }
+    }
+
+    private void index(String fileName, String displayName, Opener opener) {
+        String localeName;
+        if(fileName.endsWith(PROPERTIES_EXTENSION)) {
+            localeName = fileName.substring(0, fileName.length() - PROPERTIES_EXTENSION.length());
+        }
+        else if(fileName.endsWith(JSON_EXTENSION)) {
+            localeName = fileName.substring(0, fileName.length() - JSON_EXTENSION.length());
+        }
+        else {
+            return;
+        }
+
+        Locale locale = LOCALE_NAME.matcher(localeName).matches() ? Translator.parseLocale(localeName) : null;
+        if(locale != null) {
+            files.put(locale, new LanguageFile(displayName, opener));
+
+            //a newly indexed file replaces whatever was loaded for its locale
+            if(locale.equals(defaultLocale)) {
+                defaultTemplates = null;
+            }
+
+            synchronized(loaded) {
+                loaded.remove(locale);
+            }
+
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the locales that have a language file.
+     * @return An unmodifiable view of the indexed locales
+     */
+    public @NotNull Set<Locale> getLocales() {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    @Override
+    public @Nullable MessageTemplate template(@NotNull String key, @NotNull Locale locale) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(locale, "locale cannot be null");
+
+        MessageTemplate template = locale.equals(defaultLocale) ? null : localizedTemplate(key, locale);
+        return template == null ? defaultTemplates().get(key) : template;
+    }
+
+    /**
+     * Finds the template for a key in a locale or, if it has a country, its language alone, without falling back to
+     * the default locale.
+     * @param key The translation key
+     * @param locale The locale
+     * @return The template, or null if there is no translation for the locale or its language
+     */
+    @Nullable MessageTemplate localizedTemplate(@NotNull String key, @NotNull Locale locale) {
+        MessageTemplate template = templatesFor(locale).get(key);
+
+        if(template == null && !locale.getCountry().isEmpty()) {
+            template = templatesFor(new Locale(locale.getLanguage())).get(key);
+        }
+
+        return template;
+    }
+
+    /**
+     * Gets the version of this source, which increases every time a language file is indexed.
+     * @return The current version
+     */
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    public @NotNull Key name() {
+        return name;
+    }
+
+    /**
+     * Translates a key into a new MessageFormat. Since MessageFormats are mutable, every call returns a copy of the
+     * MessageFormat the loaded template caches for the locale, so the pattern is only parsed again if its locale is
+     * evicted and reloaded; prefer {@link #template(String, Locale)} where possible.
+     */
+    @Override
+    public @Nullable MessageFormat translate(@NotNull String key, @NotNull Locale locale) {
+        MessageTemplate template = template(key, locale);
+        return template == null ? null : template.toMessageFormat(locale);
+    }
+
+    private Map<String, MessageTemplate> defaultTemplates() {
+        Map<String, MessageTemplate> templates = defaultTemplates;
+
+        if(templates == null) { //racing threads may each read the file, but they produce equivalent templates
+            defaultTemplates = templates = read(defaultLocale);
+        }
+
+        return templates;
+    }
+
+    /* the default locale's templates are kept separately, so they are never evicted */
+    private Map<String, MessageTemplate> templatesFor(Locale locale) {
+        return locale.equals(defaultLocale) ? defaultTemplates() : templates(locale);
+    }
+
+    /*
+    the file is read while holding the lock, so a locale is only ever read once at a time; files are small, and each
+    locale is only read once until it is evicted
+     */
+    private Map<String, MessageTemplate> templates(Locale locale) {
+        if(!files.containsKey(locale)) {
+            return Collections.emptyMap();
+        }
+
+        synchronized(loaded) {
+            Map<String, MessageTemplate> templates = loaded.get(locale);
+
+            if(templates == null) {
+                templates = read(locale);
+                loaded.put(locale, templates);
+            }
+
+            return templates;
+        }
+    }
+
+    private Map<String, MessageTemplate> read(Locale locale) {
+        LanguageFile file = files.get(locale);
+        if(file == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> patterns = new HashMap<>();
+        try(Reader reader = new InputStreamReader(file.opener.open(), StandardCharsets.UTF_8)) {
+            if(file.name.endsWith(JSON_EXTENSION)) {
+                flatten("", new JsonParser().parse(reader), patterns);
+            }
+            else {
+                Properties properties = new Properties();
+                properties.load(reader);
+
+                for(String key : properties.stringPropertyNames()) {
+                    patterns.put(key, properties.getProperty(key));
+                }
+            }
+        }
+        catch (IOException | JsonParseException | IllegalArgumentException exception) {
+            logger.log(Level.WARNING, "unable to read language file " + file.name, exception);
+            return Collections.emptyMap();
+        }
+
+        Map<String, MessageTemplate> templates = new HashMap<>(patterns.size() * 4 / 3 + 1);
+        for(Map.Entry<String, String> pattern : patterns.entrySet()) {
+            try {
+                templates.put(pattern.getKey(), MessageTemplate.compile(pattern.getValue()));
+            }
+            catch (IllegalArgumentException exception) {
+                logger.warning("skipping translation " + pattern.getKey() + " in " + file.name + ": " +
+                        exception.getMessage());
+            }
+        }
+
+        return templates;
+    }
+
+    private static void flatten(String prefix, JsonElement element, Map<String, String> patterns) {
+        if(element.isJsonObject()) {
+            for(Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                flatten(prefix.isEmpty() ? entry.getKey() : prefix + "." + entry.getKey(), entry.getValue(), patterns);
+            }
+        }
+        else if(element.isJsonPrimitive() && !prefix.isEmpty()) {
+            patterns.put(prefix, element.getAsString());
+        }
+        else {
+            throw new IllegalArgumentException("expected a string or object at " +
+                    (prefix.isEmpty() ? "root" : prefix));
+        }
+    }
+}
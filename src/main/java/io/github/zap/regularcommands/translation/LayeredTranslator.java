@@ -0,0 +1,131 @@
+package io.github.zap.regularcommands.translation;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.translation.TranslationRegistry;
+import net.kyori.adventure.translation.Translator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The single translation source that a CommandManager adds to the GlobalTranslator and renders its own messages from,
+ * so that a message is translated the same way whether it is rendered by the {@link MessageCache} or by the server.
+ * Translations are looked up in layers: first any {@link LanguageFileSource}s, most recently added first, then a
+ * TranslationRegistry, and finally a {@link TemplateRegistry}. A translation in the requested locale, or its language,
+ * from any layer is preferred over a translation in the default locale; among layers that have one, the earlier layer
+ * wins.
+ *
+ * Since this class falls back to the default locale itself, the TranslationRegistry's own default locale should be
+ * {@link Locale#ROOT}, which no translations are registered for; otherwise, its default translations would hide
+ * localized translations in later layers.
+ */
+public final class LayeredTranslator implements Translator, TemplateSource {
+    private final Key name;
+    private final Locale defaultLocale;
+    private final TranslationRegistry registry;
+    private final TemplateRegistry templates;
+    private final List<LanguageFileSource> languageFiles; //most recently added first
+    private final AtomicLong layers; //the number of language files added, so adding one changes the version
+
+    /**
+     * Creates a new LayeredTranslator.
+     * @param name The name of this translation source
+     * @param defaultLocale The locale to fall back to when a key has no translation in the requested locale
+     * @param registry The first layer, which is typically populated by users
+     * @param templates The last layer, which typically holds the default translations
+     */
+    public LayeredTranslator(@NotNull Key name, @NotNull Locale defaultLocale, @NotNull TranslationRegistry registry,
+                             @NotNull TemplateRegistry templates) {
+        this.name = Objects.requireNonNull(name, "name cannot be null");
+        this.defaultLocale = Objects.requireNonNull(defaultLocale, "defaultLocale cannot be null");
+        this.registry = Objects.requireNonNull(registry, "registry cannot be null");
+        this.templates = Objects.requireNonNull(templates, "templates cannot be null");
+        this.languageFiles = new CopyOnWriteArrayList<>();
+        this.layers = new AtomicLong();
+    }
+
+    /**
+     * Adds language files as the first layer, so they take precedence over the TranslationRegistry, the
+     * TemplateRegistry and any previously added language files.
+     * @param source The language files to add
+     */
+    public void addLanguageFiles(@NotNull LanguageFileSource source) {
+        languageFiles.add(0, Objects.requireNonNull(source, "source cannot be null"));
+        layers.incrementAndGet();
+    }
+
+    /**
+     * Gets the version of this translator, which increases whenever language files are added or the templates in any
+     * of its TemplateRegistry or language files change. Changes to the TranslationRegistry are not tracked.
+     * @return The current version
+     */
+    @Override
+    public long version() {
+        long version = layers.get() + templates.version();
+
+        for(LanguageFileSource source : languageFiles) {
+            version += source.version();
+        }
+
+        return version;
+    }
+
+    /**
+     * Finds the template used to translate a key. If the key is translated by the TranslationRegistry, which holds
+     * MessageFormats rather than templates, null is returned, and the message should be rendered through the
+     * GlobalTranslator instead.
+     * @param key The translation key
+     * @param locale The locale
+     * @return The template, or null if the key is not translated by a template
+     */
+    @Override
+    public @Nullable MessageTemplate template(@NotNull String key, @NotNull Locale locale) {
+        Object translation = find(key, locale);
+        return translation instanceof MessageTemplate ? (MessageTemplate)translation : null;
+    }
+
+    @Override
+    public @NotNull Key name() {
+        return name;
+    }
+
+    @Override
+    public @Nullable MessageFormat translate(@NotNull String key, @NotNull Locale locale) {
+        Object translation = find(key, locale);
+
+        if(translation instanceof MessageTemplate) {
+            return ((MessageTemplate)translation).toMessageFormat(locale);
+        }
+
+        return (MessageFormat)translation;
+    }
+
+    /* the translation in the locale or its language from the first layer that has one, else the same for the default */
+    private Object find(String key, Locale locale) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(locale, "locale cannot be null");
+
+        Object translation = findLocalized(key, locale);
+        return translation == null && !locale.equals(defaultLocale) ? findLocalized(key, defaultLocale) : translation;
+    }
+
+    /* a MessageFormat or MessageTemplate, or null if no layer has a translation in the locale or its language */
+    private Object findLocalized(String key, Locale locale) {
+        for(LanguageFileSource source : languageFiles) {
+            MessageTemplate template = source.localizedTemplate(key, locale);
+
+            if(template != null) {
+                return template;
+            }
+        }
+
+        MessageFormat format = registry.translate(key, locale);
+        return format == null ? templates.localizedTemplate(key, locale) : format;
+    }
+}
@@ -0,0 +1,274 @@
+package io.github.zap.regularcommands.translation;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.kyori.adventure.translation.Translator;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Caches rendered messages, keyed by the message (its translation key and arguments) and locale. Messages whose key has
+ * a template in one of the cache's {@link TemplateSource}s are rendered from the template directly; others are rendered
+ * through the {@link GlobalTranslator}. Only simple messages are cached: unstyled translatable components without
+ * children, whose arguments are short, unstyled text components. These are the fixed or low-cardinality messages, such
+ * as errors, that are sent over and over again; anything else is returned as-is and rendered by the server when it is
+ * sent.
+ *
+ * Rendered messages are kept in a bounded, least-recently-used cache. Messages can also be pinned, which renders them
+ * up front and keeps them for as long as the cache exists. Since rendered messages no longer refer to their translation
+ * key, the cache checks the {@link TemplateSource#version()} of its sources whenever it is used; if any source has
+ * changed, rendered messages are discarded and pinned messages are rendered again. Translations that do not come from a
+ * TemplateSource, such as those in a TranslationRegistry added to the GlobalTranslator, are not tracked, so
+ * {@link #invalidateAll()} must be called after changing them.
+ */
+public final class MessageCache {
+    private static final int MAXIMUM_ARGUMENT_LENGTH = 64;
+
+    private static final class Key {
+        private final Component message;
+        private final Locale locale;
+        private final int hash;
+
+        private Key(Component message, Locale locale) {
+            this.message = message;
+            this.locale = locale;
+            this.hash = message.hashCode() * 31 + locale.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(this == other) {
+                return true;
+            }
+            else if(other instanceof Key) {
+                Key key = (Key)other;
+                return hash == key.hash && locale.equals(key.locale) && message.equals(key.message);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final List<TemplateSource> sources; //most recently added first
+    private final Map<Key, Component> pinned;
+    private final Map<Key, Component> rendered; //guarded by itself
+    private volatile long version; //the combined version of the sources when messages were last discarded
+    private volatile long generation; //incremented whenever messages are discarded, while holding rendered
+
+    /**
+     * Creates a new MessageCache.
+     * @param maximumSize The maximum number of rendered messages to keep, not counting pinned messages
+     * @param templates The templates to render messages from, before falling back to the GlobalTranslator
+     */
+    public MessageCache(int maximumSize, @NotNull TemplateSource templates) {
+        if(maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be > 0");
+        }
+
+        this.sources = new CopyOnWriteArrayList<>();
+        this.sources.add(Objects.requireNonNull(templates, "templates cannot be null"));
+        this.pinned = new ConcurrentHashMap<>();
+        this.rendered = new LinkedHashMap<>(16, 0.75F, true) { //access order, so the eldest entry is least recently used
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Component> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.version = sourceVersion();
+    }
+
+    /**
+     * Renders a message in the given locale, using a cached rendering if one exists. Messages that cannot be cached
+     * are rendered without caching them.
+     * @param message The message to render
+     * @param locale The locale to render it in
+     * @return The rendered message
+     */
+    public @NotNull Component render(@NotNull Component message, @NotNull Locale locale) {
+        Objects.requireNonNull(message, "message cannot be null");
+        Objects.requireNonNull(locale, "locale cannot be null");
+
+        if(!isCacheable(message)) {
+            return renderUncached(message, locale);
+        }
+
+        checkVersion();
+        Key key = new Key(message, locale);
+        Component result = pinned.get(key);
+
+        if(result == null) {
+            long renderedGeneration;
+            synchronized(rendered) {
+                result = rendered.get(key);
+                renderedGeneration = generation;
+            }
+
+            if(result == null) { //rendering outside the lock means racing threads may each render the message
+                result = renderUncached(message, locale);
+
+                synchronized(rendered) {
+                    if(generation == renderedGeneration) { //otherwise, it may have been rendered from old templates
+                        rendered.put(key, result);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Prepares a message to be sent to the given sender. Messages sent to players are rendered in the player's locale
+     * if they can be cached; anything else is returned as-is.
+     * @param sender The sender the message will be sent to
+     * @param message The message
+     * @return The message to send
+     */
+    public @NotNull Component render(@NotNull CommandSender sender, @NotNull Component message) {
+        Objects.requireNonNull(sender, "sender cannot be null");
+        Objects.requireNonNull(message, "message cannot be null");
+
+        if(sender instanceof Player && isCacheable(message)) {
+            Locale locale = Translator.parseLocale(((Player)sender).getLocale());
+
+            if(locale != null) {
+                return render(message, locale);
+            }
+        }
+
+        return message;
+    }
+
+    /**
+     * Renders a message in the given locale and keeps it for as long as this cache exists, rendering it again whenever
+     * translations change. This is intended for messages without arguments, which have only one rendering per locale.
+     * @param message The message to pin
+     * @param locale The locale to render it in
+     */
+    public void pin(@NotNull Component message, @NotNull Locale locale) {
+        Objects.requireNonNull(message, "message cannot be null");
+        Objects.requireNonNull(locale, "locale cannot be null");
+
+        if(!isCacheable(message)) {
+            throw new IllegalArgumentException("message cannot be cached");
+        }
+
+        checkVersion();
+        pinned.put(new Key(message, locale), renderUncached(message, locale));
+    }
+
+    /**
+     * Adds a source of templates. Sources added later take precedence over earlier ones. Rendered messages are
+     * discarded and pinned messages are rendered again, since they may have been rendered from a different template.
+     * @param source The source to add
+     */
+    public void addSource(@NotNull TemplateSource source) {
+        sources.add(0, Objects.requireNonNull(source, "source cannot be null"));
+        invalidateAll();
+    }
+
+    /**
+     * Discards every rendered message and renders pinned messages again. Changes to this cache's TemplateSources are
+     * detected automatically, so this only needs to be called after changing translations that come from elsewhere,
+     * such as a TranslationRegistry.
+     */
+    public void invalidateAll() {
+        synchronized(rendered) {
+            discard(sourceVersion());
+        }
+    }
+
+    /**
+     * Gets a number that increases whenever this cache discards its rendered messages, either because one of its
+     * sources changed or because {@link #invalidateAll()} was called. Anything else that keeps messages rendered from
+     * the same translations can compare generations to tell when to discard them too.
+     * @return The current generation
+     */
+    public long generation() {
+        checkVersion();
+        return generation;
+    }
+
+    /* discards rendered messages if any source has changed since they were rendered */
+    private void checkVersion() {
+        long current = sourceVersion();
+
+        if(current != version) {
+            synchronized(rendered) {
+                if(current != version) {
+                    discard(current);
+                }
+            }
+        }
+    }
+
+    /* must be called while holding the lock on rendered */
+    private void discard(long current) {
+        version = current;
+        generation++;
+        rendered.clear();
+        pinned.replaceAll((key, message) -> renderUncached(key.message, key.locale));
+    }
+
+    private long sourceVersion() {
+        long version = 0;
+        for(TemplateSource source : sources) {
+            version += source.version();
+        }
+
+        return version;
+    }
+
+    private Component renderUncached(Component message, Locale locale) {
+        if(message instanceof TranslatableComponent) {
+            TranslatableComponent translatable = (TranslatableComponent)message;
+            if(!message.hasStyling() && message.children().isEmpty()) {
+                for(TemplateSource source : sources) {
+                    MessageTemplate template = source.template(translatable.key(), locale);
+
+                    if(template != null) {
+                        return template.render(translatable.args());
+                    }
+                }
+            }
+        }
+
+        return GlobalTranslator.render(message, locale);
+    }
+
+    /**
+     * Determines if a message is simple enough to be cached.
+     * @param message The message
+     * @return True if the message can be cached, false otherwise
+     */
+    public static boolean isCacheable(@NotNull Component message) {
+        if(!(message instanceof TranslatableComponent) || message.hasStyling() || !message.children().isEmpty()) {
+            return false;
+        }
+
+        for(Component argument : ((TranslatableComponent)message).args()) {
+            if(!(argument instanceof TextComponent) || argument.hasStyling() || !argument.children().isEmpty() ||
+                    ((TextComponent)argument).content().length() > MAXIMUM_ARGUMENT_LENGTH) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.zap.regularcommands.translation;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import org.jetbrains.annotations.NotNull;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A translation pattern that has been compiled into literal text and argument slots, so that formatting it is a matter
+ * of concatenation. Patterns use the same syntax as {@link MessageFormat}, restricted to plain {0}-style arguments:
+ * single quotes quote literal text (so '{' is a literal brace), and two single quotes produce one. Unlike
+ * MessageFormat, arguments are not formatted according to a locale; they are converted with String.valueOf.
+ *
+ * MessageTemplates are immutable, and so can be shared between threads without synchronization or copying.
+ */
+public final class MessageTemplate {
+    private static final char QUOTE = '\'';
+
+    private final String pattern;
+    private final String[] literals; //literals[i] comes before argument i; the last literal comes after every argument
+    private final int[] arguments;
+    private final int literalLength;
+    private final Map<Locale, MessageFormat> formats; //never handed out directly, since MessageFormat is mutable
+
+    private MessageTemplate(String pattern, List<String> literals, List<Integer> arguments) {
+        this.pattern = pattern;
+        this.literals = literals.toArray(new String[0]);
+        this.arguments = new int[arguments.size()];
+
+        for(int i = 0; i < this.arguments.length; i++) {
+            this.arguments[i] = arguments.get(i);
+        }
+
+        int length = 0;
+        for(String literal : this.literals) {
+            length += literal.length();
+        }
+
+        this.literalLength = length;
+        this.formats = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Compiles a pattern.
+     * @param pattern The pattern to compile
+     * @return A new MessageTemplate
+     * @throws IllegalArgumentException if the pattern has unmatched braces, or an argument that is not a plain index
+     */
+    public static @NotNull MessageTemplate compile(@NotNull String pattern) {
+        Objects.requireNonNull(pattern, "pattern cannot be null");
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> arguments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean quoted = false;
+
+        for(int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+
+            if(c == QUOTE) {
+                if(i + 1 < pattern.length() && pattern.charAt(i + 1) == QUOTE) { //escaped quote
+                    literal.append(QUOTE);
+                    i++;
+                }
+                else {
+                    quoted = !quoted;
+                }
+            }
+            else if(c == '{' && !quoted) {
+                int end = pattern.indexOf('}', i);
+                if(end == -1) {
+                    throw new IllegalArgumentException("unmatched braces in pattern " + pattern);
+                }
+
+                literals.add(literal.toString());
+                literal.setLength(0);
+                arguments.add(parseIndex(pattern, i + 1, end));
+                i = end;
+            }
+            else {
+                literal.append(c);
+            }
+        }
+
+        literals.add(literal.toString());
+        return new MessageTemplate(pattern, literals, arguments);
+    }
+
+    private static int parseIndex(String pattern, int start, int end) {
+        if(start == end || end - start > 9) {
+            throw new IllegalArgumentException("invalid argument index in pattern " + pattern);
+        }
+
+        int index = 0;
+        for(int i = start; i < end; i++) {
+            char c = pattern.charAt(i);
+
+            if(c < '0' || c > '9') {
+                throw new IllegalArgumentException("only plain argument indices are supported, in pattern " + pattern);
+            }
+
+            index = index * 10 + (c - '0');
+        }
+
+        return index;
+    }
+
+    /**
+     * Formats this template. Arguments that are not supplied are left as their {n} placeholder, as MessageFormat does.
+     * @param args The arguments
+     * @return The formatted string
+     */
+    public @NotNull String format(@NotNull Object... args) {
+        StringBuilder builder = new StringBuilder(literalLength + arguments.length * 16);
+
+        for(int i = 0; i < arguments.length; i++) {
+            builder.append(literals[i]);
+            int index = arguments[i];
+
+            if(index < args.length) {
+                builder.append(args[index]);
+            }
+            else {
+                builder.append('{').append(index).append('}');
+            }
+        }
+
+        return builder.append(literals[arguments.length]).toString();
+    }
+
+    /**
+     * Renders this template as a component, with the given components as arguments. Arguments that are not supplied are
+     * left as their {n} placeholder.
+     * @param args The arguments
+     * @return The rendered component
+     */
+    public @NotNull Component render(@NotNull List<? extends ComponentLike> args) {
+        Component result = Component.text(literals[0]);
+
+        for(int i = 0; i < arguments.length; i++) {
+            int index = arguments[i];
+            result = result.append(index < args.size() ? args.get(index).asComponent() :
+                    Component.text("{" + index + "}"));
+
+            String literal = literals[i + 1];
+            if(!literal.isEmpty()) {
+                result = result.append(Component.text(literal));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the number of argument slots in this template. An argument that is used more than once is counted each time.
+     * @return The number of argument slots
+     */
+    public int argumentCount() {
+        return arguments.length;
+    }
+
+    /**
+     * Gets the pattern this template was compiled from.
+     * @return The pattern
+     */
+    public @NotNull String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Creates a MessageFormat equivalent to this template, for APIs that require one. The pattern is only parsed the
+     * first time a locale is requested; later calls return a copy of that MessageFormat, so callers may modify the
+     * result.
+     * @param locale The locale of the MessageFormat
+     * @return A new MessageFormat
+     */
+    public @NotNull MessageFormat toMessageFormat(@NotNull Locale locale) {
+        Objects.requireNonNull(locale, "locale cannot be null");
+
+        MessageFormat prototype = formats.get(locale);
+        if(prototype == null) {
+            prototype = formats.computeIfAbsent(locale, key -> new MessageFormat(pattern, key));
+        }
+
+        return (MessageFormat)prototype.clone();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.zap.regularcommands.translation;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.translation.Translator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe translation source backed by {@link MessageTemplate}s. It can be added to the
+ * {@link net.kyori.adventure.translation.GlobalTranslator} like a TranslationRegistry, and lookups fall back the same
+ * way: from the exact locale, to its language alone, to the default locale. Templates can also be looked up directly,
+ * which lets messages be rendered without going through MessageFormat at all.
+ */
+public final class TemplateRegistry implements Translator, TemplateSource {
+    private final Key name;
+    private final Locale defaultLocale;
+    private final Map<String, Map<Locale, MessageTemplate>> templates;
+    private final AtomicLong version;
+
+    /**
+     * Creates a new, empty TemplateRegistry.
+     * @param name The name of this translation source
+     * @param defaultLocale The locale to fall back to when a key has no template for the requested locale
+     */
+    public TemplateRegistry(@NotNull Key name, @NotNull Locale defaultLocale) {
+        this.name = Objects.requireNonNull(name, "name cannot be null");
+        this.defaultLocale = Objects.requireNonNull(defaultLocale, "defaultLocale cannot be null");
+        this.templates = new ConcurrentHashMap<>();
+        this.version = new AtomicLong();
+    }
+
+    /**
+     * Registers a template.
+     * @param key The translation key
+     * @param locale The locale of the template
+     * @param template The template
+     * @throws IllegalArgumentException if a template is already registered for the key and locale
+     */
+    public void register(@NotNull String key, @NotNull Locale locale, @NotNull MessageTemplate template) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(locale, "locale cannot be null");
+        Objects.requireNonNull(template, "template cannot be null");
+
+        if(templates.computeIfAbsent(key, ignored -> new ConcurrentHashMap<>()).putIfAbsent(locale, template) != null) {
+            throw new IllegalArgumentException("translation already exists: " + key + " for " + locale);
+        }
+
+        version.incrementAndGet();
+    }
+
+    /**
+     * Removes every template registered for a key.
+     * @param key The translation key
+     */
+    public void unregister(@NotNull String key) {
+        if(templates.remove(Objects.requireNonNull(key, "key cannot be null")) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Finds the template to use for a key in a locale.
+     * @param key The translation key
+     * @param locale The locale
+     * @return The template, or null if the key has no template for the locale, its language, or the default locale
+     */
+    @Override
+    public @Nullable MessageTemplate template(@NotNull String key, @NotNull Locale locale) {
+        MessageTemplate template = localizedTemplate(key, locale);
+        if(template == null) {
+            Map<Locale, MessageTemplate> byLocale = templates.get(key);
+            return byLocale == null ? null : byLocale.get(defaultLocale);
+        }
+
+        return template;
+    }
+
+    /**
+     * Finds the template for a key in a locale or, if it has a country, its language alone, without falling back to
+     * the default locale.
+     * @param key The translation key
+     * @param locale The locale
+     * @return The template, or null if the key has no template for the locale or its language
+     */
+    @Nullable MessageTemplate localizedTemplate(@NotNull String key, @NotNull Locale locale) {
+        Map<Locale, MessageTemplate> byLocale = templates.get(key);
+
+        if(byLocale == null) {
+            return null;
+        }
+
+        MessageTemplate template = byLocale.get(locale);
+        if(template == null && !locale.getCountry().isEmpty()) {
+            template = byLocale.get(new Locale(locale.getLanguage()));
+        }
+
+        return template;
+    }
+
+    /**
+     * Gets the version of this registry, which increases every time a template is registered or unregistered.
+     * @return The current version
+     */
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    public @NotNull Key name() {
+        return name;
+    }
+
+    /**
+     * Translates a key into a new MessageFormat. Since MessageFormats are mutable, every call returns a copy of the
+     * MessageFormat the template caches for the locale; prefer {@link #template(String, Locale)} where possible.
+     */
+    @Override
+    public @Nullable MessageFormat translate(@NotNull String key, @NotNull Locale locale) {
+        MessageTemplate template = template(key, locale);
+        return template == null ? null : template.toMessageFormat(locale);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.zap.regularcommands.translation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Something that can supply a {@link MessageTemplate} for a translation key in a locale.
+ */
+public interface TemplateSource {
+    /**
+     * Finds the template to use for a key in a locale, falling back to other locales as the source sees fit.
+     * @param key The translation key
+     * @param locale The locale
+     * @return The template, or null if this source has none for the key
+     */
+    @Nullable MessageTemplate template(@NotNull String key, @NotNull Locale locale);
+
+    /**
+     * Gets a number that increases whenever the templates this source supplies may have changed, so that messages
+     * rendered from them can tell when they are out of date. Sources whose templates never change can use the default
+     * implementation, which always returns 0.
+     * @return The current version
+     */
+    default long version() {
+        return 0;
+    }
+}
@@ -2,13 +2,18 @@ package io.github.zap.regularcommands.util;
 
 import io.github.zap.regularcommands.commands.CommandForm;
 import io.github.zap.regularcommands.completer.ArgumentCompleter;
+import io.github.zap.regularcommands.completer.CompleterTrait;
+import io.github.zap.regularcommands.completer.PrefixIndex;
+import io.github.zap.regularcommands.completer.RankedIndex;
+import io.github.zap.regularcommands.completer.StreamingCompletionStep;
+import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Utility class for things related to ArgumentCompleters. Includes a default completer that looks at the form's
- * static completion options and narrows them down based on what the user is typing (last argument).
+ * Utility class for things related to ArgumentCompleters. Includes a default completer that looks up the form's
+ * static completion options that start with what the user is typing (last argument). The default completer only reads
+ * immutable parameter data, so it is safe to run asynchronously and its output can be cached.
  */
 public final class Completers {
     public static final ArgumentCompleter PARAMETER_COMPLETER = new ArgumentCompleter((context, args) -> {
@@ -16,19 +21,36 @@ public final class Completers {
         int length = form.size();
 
         if(length > 0) {
-            List<String> options = form.getParameter(Math.min(length - 1, args.length - 1)).getStaticCompletionOptions();
-            String startsWith = args[args.length - 1];
-
-            List<String> results = new ArrayList<>();
-            for(String option : options) {
-                if(option.startsWith(startsWith)) {
-                    results.add(option);
-                }
-            }
-
-            return results.size() == 0 ? null : results;
+            PrefixIndex index = form.getParameter(Math.min(length - 1, args.length - 1)).getCompletionIndex();
+            List<String> results = index.withPrefix(args[args.length - 1]);
+            return results.isEmpty() ? null : results;
         }
 
         return null;
-    });
+    }, null, CompleterTrait.ASYNC_SAFE, CompleterTrait.CACHEABLE);
+
+    /**
+     * Creates a completer that ranks the form's static completion options against what the user is typing (last
+     * argument), tolerating case differences, skipped characters and typos. See {@link RankedIndex} for how options
+     * are ranked. Like the default completer, it is safe to run asynchronously and its output can be cached.
+     * @param limit The maximum number of completions to produce
+     * @return A new ranked ArgumentCompleter
+     */
+    public static @NotNull ArgumentCompleter ranked(int limit) {
+        if(limit <= 0) {
+            throw new IllegalArgumentException("limit must be > 0");
+        }
+
+        StreamingCompletionStep step = (context, args, sink) -> {
+            CommandForm<?> form = context.getForm();
+            int length = form.size();
+
+            if(length > 0) {
+                RankedIndex index = form.getParameter(Math.min(length - 1, args.length - 1)).getRankedIndex();
+                index.rank(args[args.length - 1], limit, sink);
+            }
+        };
+
+        return new ArgumentCompleter(step, null, CompleterTrait.ASYNC_SAFE, CompleterTrait.CACHEABLE);
+    }
 }
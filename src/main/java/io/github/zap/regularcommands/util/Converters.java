@@ -1,176 +1,798 @@
 package io.github.zap.regularcommands.util;
 
+import io.github.zap.regularcommands.commands.Arguments;
+import io.github.zap.regularcommands.commands.CommandForm;
 import io.github.zap.regularcommands.commands.DefaultKeys;
 import io.github.zap.regularcommands.converter.ArgumentConverter;
+import io.github.zap.regularcommands.converter.ArgumentType;
+import io.github.zap.regularcommands.converter.ArgumentTypes;
+import io.github.zap.regularcommands.converter.BooleanArgumentConverter;
 import io.github.zap.regularcommands.converter.ConversionResult;
+import io.github.zap.regularcommands.converter.DoubleArgumentConverter;
+import io.github.zap.regularcommands.converter.IntArgumentConverter;
+import io.github.zap.regularcommands.converter.LongArgumentConverter;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.IntFunction;
 
 /**
- * Utility class containing built-in converters and helper methods.
+ * Utility class containing built-in converters and helper methods. The integer, long, double and boolean converters
+ * are {@link io.github.zap.regularcommands.converter.PrimitiveArgumentConverter}s, so their values are read from
+ * {@link Arguments} without boxing.
  */
 public final class Converters {
-    public final static ArgumentConverter<BigDecimal> BIG_DECIMAL_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, new BigDecimal(argument), null);
-        }
-        catch(NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_BIG_DECIMAL.key(),
-                    Component.text(argument)));
+    private static final long INVALID = Long.MIN_VALUE;
+    private static final long INVALID_NEGATED = 1; //negated values are never positive
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int[] EMPTY_INT_ARRAY = new int[0];
+    private static final long[] EMPTY_LONG_ARRAY = new long[0];
+    private static final double[] EMPTY_DOUBLE_ARRAY = new double[0];
+    private static final ConversionResult<Object[]> EMPTY_ELEMENTS = ConversionResult.of(true,
+            ArrayUtils.EMPTY_OBJECT_ARRAY, null);
+    private static final long INTEGER_OVERFLOW = 1L << 31;
+    private static final long EXPONENT_OVERFLOW = 1L << 31;
+
+    public final static ArgumentConverter<BigDecimal> BIG_DECIMAL_CONVERTER = (form, argument) ->
+            isBigDecimal(argument) ? ConversionResult.of(true, new BigDecimal(argument), null) :
+                    failure(DefaultKeys.ERROR_CONVERT_BIG_DECIMAL, argument);
+
+    public final static ArgumentConverter<BigInteger> BIG_INTEGER_CONVERTER = (form, argument) ->
+            isBigInteger(argument) ? ConversionResult.of(true, new BigInteger(argument), null) :
+                    failure(DefaultKeys.ERROR_CONVERT_BIG_INTEGER, argument);
+
+    public final static ArgumentConverter<Long> LONG_CONVERTER = new LongArgumentConverter() {
+        @Override
+        public boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out,
+                                   int index) {
+            long result = parseNegatedLong(argument, 0, argument.length());
+            if(result == INVALID_NEGATED) {
+                return false;
+            }
+
+            out.setLong(index, argument.charAt(0) == '-' ? result : -result);
+            return true;
         }
-    };
 
-    public final static ArgumentConverter<BigInteger> BIG_INTEGER_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, new BigInteger(argument), null);
+        @Override
+        public @NotNull ConversionResult<Long> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+            long result = parseNegatedLong(argument, 0, argument.length());
+            return result == INVALID_NEGATED ? failure(DefaultKeys.ERROR_CONVERT_LONG, argument) :
+                    ConversionResult.of(true, argument.charAt(0) == '-' ? result : -result, null);
         }
-        catch(NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_BIG_INTEGER.key(),
-                    Component.text(argument)));
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            return Component.translatable(DefaultKeys.ERROR_CONVERT_LONG.key(), Component.text(argument));
         }
     };
 
-    public final static ArgumentConverter<Long> LONG_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, Long.parseLong(argument), null);
-        }
-        catch(NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_LONG.key(),
-                    Component.text(argument)));
+    public final static ArgumentConverter<Integer> INTEGER_CONVERTER = new IntArgumentConverter() {
+        @Override
+        public boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out,
+                                   int index) {
+            long value = parseInteger(argument, 0, argument.length(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+            if(value == INVALID) {
+                return false;
+            }
+
+            out.setInt(index, (int)value);
+            return true;
         }
-    };
 
-    public final static ArgumentConverter<Integer> INTEGER_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, Integer.parseInt(argument), null);
+        @Override
+        public @NotNull ConversionResult<Integer> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+            long value = parseInteger(argument, 0, argument.length(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+            return value == INVALID ? failure(DefaultKeys.ERROR_CONVERT_INTEGER, argument) :
+                    ConversionResult.of(true, (int)value, null);
         }
-        catch(NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_INTEGER.key(),
-                    Component.text(argument)));
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            return Component.translatable(DefaultKeys.ERROR_CONVERT_INTEGER.key(), Component.text(argument));
         }
     };
 
-    public final static ArgumentConverter<Double> DOUBLE_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, Double.parseDouble(argument), null);
-        }
-        catch(NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_DOUBLE.key(),
-                    Component.text(argument)));
+    public final static ArgumentConverter<Double> DOUBLE_CONVERTER = new DoubleArgumentConverter() {
+        @Override
+        public boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out,
+                                   int index) {
+            if(!isFloatingPoint(argument, 0, argument.length())) {
+                return false;
+            }
+
+            out.setDouble(index, Double.parseDouble(argument));
+            return true;
         }
-    };
 
-    public final static ArgumentConverter<Float> FLOAT_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, Float.parseFloat(argument), null);
+        @Override
+        public @NotNull ConversionResult<Double> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+            return isFloatingPoint(argument, 0, argument.length()) ?
+                    ConversionResult.of(true, Double.parseDouble(argument), null) :
+                    failure(DefaultKeys.ERROR_CONVERT_DOUBLE, argument);
         }
-        catch(NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_FLOAT.key(),
-                    Component.text(argument)));
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            return Component.translatable(DefaultKeys.ERROR_CONVERT_DOUBLE.key(), Component.text(argument));
         }
     };
 
+    public final static ArgumentConverter<Float> FLOAT_CONVERTER = (form, argument) ->
+            isFloatingPoint(argument, 0, argument.length()) ?
+                    ConversionResult.of(true, Float.parseFloat(argument), null) :
+                    failure(DefaultKeys.ERROR_CONVERT_FLOAT, argument);
+
     public final static ArgumentConverter<Short> SHORT_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, Short.parseShort(argument), null);
-        }
-        catch(NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_SHORT.key(),
-                    Component.text(argument)));
-        }
+        long value = parseInteger(argument, 0, argument.length(), Short.MIN_VALUE, Short.MAX_VALUE);
+        return value == INVALID ? failure(DefaultKeys.ERROR_CONVERT_SHORT, argument) :
+                ConversionResult.of(true, (short)value, null);
     };
 
     public final static ArgumentConverter<Byte> BYTE_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, Byte.parseByte(argument), null);
-        }
-        catch(NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_BYTE.key(),
-                    Component.text(argument)));
-        }
+        long value = parseInteger(argument, 0, argument.length(), Byte.MIN_VALUE, Byte.MAX_VALUE);
+        return value == INVALID ? failure(DefaultKeys.ERROR_CONVERT_BYTE, argument) :
+                ConversionResult.of(true, (byte)value, null);
     };
 
-    public final static ArgumentConverter<Boolean> BOOLEAN_CONVERTER = (form, argument) -> {
-        try {
-            return ConversionResult.of(true, parseBoolean(argument), null);
+    public final static ArgumentConverter<Boolean> BOOLEAN_CONVERTER = new BooleanArgumentConverter() {
+        @Override
+        public boolean convertInto(@NotNull CommandForm<?> form, @NotNull String argument, @NotNull Arguments out,
+                                   int index) {
+            Boolean value = parseBoolean(argument);
+            if(value == null) {
+                return false;
+            }
+
+            out.setBoolean(index, value);
+            return true;
+        }
+
+        @Override
+        public @NotNull ConversionResult<Boolean> convert(@NotNull CommandForm<?> form, @NotNull String argument) {
+            Boolean value = parseBoolean(argument);
+            return value == null ? failure(DefaultKeys.ERROR_CONVERT_BOOLEAN, argument) :
+                    ConversionResult.of(true, value, null);
         }
-        catch (NumberFormatException e) {
-            return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_BOOLEAN.key(),
-                    Component.text(argument)));
+
+        @Override
+        public @NotNull Component errorMessage(@NotNull String argument) {
+            return Component.translatable(DefaultKeys.ERROR_CONVERT_BOOLEAN.key(), Component.text(argument));
         }
     };
 
-    public static final ArgumentConverter<Material> MATERIAL_CONVERTER = (form, argument) -> {
-        Material material = Material.getMaterial(argument);
+    /**
+     * Converts the name of a non-legacy Material, case ignored.
+     */
+    public static final ArgumentConverter<Material> MATERIAL_CONVERTER = (form, argument) ->
+            MaterialHolder.MATERIAL_TYPE.convert(form, argument);
+
+    //Material has well over a thousand constants, so its lookup table is only built once it's needed
+    private static final class MaterialHolder {
+        private static final ArgumentType<Material> MATERIAL_TYPE;
 
-        if(material != null) {
-            return ConversionResult.of(true, material, null);
+        static {
+            Map<String, Material> names = new LinkedHashMap<>();
+            for(Material material : Material.values()) {
+                if(!material.isLegacy()) {
+                    names.put(material.name().toLowerCase(Locale.ROOT), material);
+                }
+            }
+
+            MATERIAL_TYPE = ArgumentTypes.keyedType(names, DefaultKeys.ERROR_CONVERT_MATERIAL.key());
         }
+    }
 
-        return ConversionResult.of(false, null, Component.translatable(DefaultKeys.ERROR_CONVERT_MATERIAL.key(),
-                Component.text(argument)));
-    };
+    /**
+     * Creates a converter for the names of an enum's constants and the given aliases, case ignored. Names are looked
+     * up in a perfect hash table built once, so conversion does not allocate or change the argument's case. The
+     * returned converter is also an {@link ArgumentType}, so when it is given to a {@link
+     * io.github.zap.regularcommands.converter.Parameter}, its names are used as completion options.
+     * @param enumClass The enum class
+     * @param aliases Additional names for constants, which may be empty
+     * @param <E> The type of the enum
+     * @return A converter for the enum
+     * @throws IllegalArgumentException if an alias is the same as another name, ignoring case
+     */
+    public static <E extends Enum<E>> @NotNull ArgumentType<E> newEnumConverter(@NotNull Class<E> enumClass,
+                                                                                @NotNull Map<String, E> aliases) {
+        return ArgumentTypes.enumType(enumClass, aliases);
+    }
+
+    /**
+     * Creates a converter for a fixed set of names, case ignored. See {@link #newEnumConverter(Class, Map)} for how
+     * names are looked up.
+     * @param names A map from names to values, in the order they should be offered as completions; several names may
+     *              map to the same value
+     * @param <T> The type of value
+     * @return A converter for the names
+     * @throws IllegalArgumentException if two names differ only in case
+     */
+    public static <T> @NotNull ArgumentType<T> newKeyedConverter(@NotNull Map<String, ? extends T> names) {
+        return ArgumentTypes.keyedType(names);
+    }
+
+    /**
+     * Creates an ArgumentConverter that converts delimited ints, such as "1,2,3", into an int[]. The argument is
+     * scanned once, and each element is parsed where it is, so elements are neither copied out of the argument nor
+     * boxed. An empty argument converts to an empty array.
+     * @param delimiter The delimiter between elements
+     * @param maxElements The maximum number of elements; arguments with more fail to convert
+     * @return A converter for int arrays
+     * @throws IllegalArgumentException if maxElements is not positive
+     */
+    public static @NotNull ArgumentConverter<int[]> newIntArrayConverter(@NotNull Delimiter delimiter,
+                                                                         int maxElements) {
+        validateElements(delimiter, maxElements);
+
+        return (form, argument) -> {
+            if(argument.isEmpty()) {
+                return ConversionResult.of(true, EMPTY_INT_ARRAY, null);
+            }
+
+            int[] values = new int[Math.min(maxElements, INITIAL_CAPACITY)];
+            int count = 0;
+
+            Delimiter.Tokenizer elements = delimiter.tokenize(argument);
+            while(elements.next()) {
+                if(count == maxElements) {
+                    return tooManyElements(maxElements);
+                }
+
+                long value = parseInteger(argument, elements.start(), elements.end(), Integer.MIN_VALUE,
+                        Integer.MAX_VALUE);
+                if(value == INVALID) {
+                    return failure(DefaultKeys.ERROR_CONVERT_INTEGER, elements.element());
+                }
+
+                if(count == values.length) {
+                    values = Arrays.copyOf(values, grow(count, maxElements));
+                }
+
+                values[count++] = (int)value;
+            }
+
+            return ConversionResult.of(true, count == values.length ? values : Arrays.copyOf(values, count), null);
+        };
+    }
+
+    /**
+     * Creates an ArgumentConverter that converts delimited longs into a long[]. See
+     * {@link #newIntArrayConverter(Delimiter, int)} for details.
+     * @param delimiter The delimiter between elements
+     * @param maxElements The maximum number of elements; arguments with more fail to convert
+     * @return A converter for long arrays
+     * @throws IllegalArgumentException if maxElements is not positive
+     */
+    public static @NotNull ArgumentConverter<long[]> newLongArrayConverter(@NotNull Delimiter delimiter,
+                                                                           int maxElements) {
+        validateElements(delimiter, maxElements);
+
+        return (form, argument) -> {
+            if(argument.isEmpty()) {
+                return ConversionResult.of(true, EMPTY_LONG_ARRAY, null);
+            }
+
+            long[] values = new long[Math.min(maxElements, INITIAL_CAPACITY)];
+            int count = 0;
+
+            Delimiter.Tokenizer elements = delimiter.tokenize(argument);
+            while(elements.next()) {
+                if(count == maxElements) {
+                    return tooManyElements(maxElements);
+                }
+
+                long result = parseNegatedLong(argument, elements.start(), elements.end());
+                if(result == INVALID_NEGATED) {
+                    return failure(DefaultKeys.ERROR_CONVERT_LONG, elements.element());
+                }
+
+                if(count == values.length) {
+                    values = Arrays.copyOf(values, grow(count, maxElements));
+                }
+
+                values[count++] = argument.charAt(elements.start()) == '-' ? result : -result;
+            }
+
+            return ConversionResult.of(true, count == values.length ? values : Arrays.copyOf(values, count), null);
+        };
+    }
+
+    /**
+     * Creates an ArgumentConverter that converts delimited doubles into a double[]. Elements accept the same syntax as
+     * {@link #DOUBLE_CONVERTER}; each is validated in place, and only copied out of the argument once it is known to
+     * be valid. See {@link #newIntArrayConverter(Delimiter, int)} for details.
+     * @param delimiter The delimiter between elements
+     * @param maxElements The maximum number of elements; arguments with more fail to convert
+     * @return A converter for double arrays
+     * @throws IllegalArgumentException if maxElements is not positive
+     */
+    public static @NotNull ArgumentConverter<double[]> newDoubleArrayConverter(@NotNull Delimiter delimiter,
+                                                                               int maxElements) {
+        validateElements(delimiter, maxElements);
+
+        return (form, argument) -> {
+            if(argument.isEmpty()) {
+                return ConversionResult.of(true, EMPTY_DOUBLE_ARRAY, null);
+            }
+
+            double[] values = new double[Math.min(maxElements, INITIAL_CAPACITY)];
+            int count = 0;
+
+            Delimiter.Tokenizer elements = delimiter.tokenize(argument);
+            while(elements.next()) {
+                if(count == maxElements) {
+                    return tooManyElements(maxElements);
+                }
+
+                if(!isFloatingPoint(argument, elements.start(), elements.end())) {
+                    return failure(DefaultKeys.ERROR_CONVERT_DOUBLE, elements.element());
+                }
+
+                if(count == values.length) {
+                    values = Arrays.copyOf(values, grow(count, maxElements));
+                }
+
+                values[count++] = Double.parseDouble(elements.element());
+            }
+
+            return ConversionResult.of(true, count == values.length ? values : Arrays.copyOf(values, count), null);
+        };
+    }
+
+    /**
+     * Creates an ArgumentConverter that converts delimited elements into an array, using another converter for each
+     * element. The argument is scanned once, and conversion stops at the first element that fails to convert. An
+     * empty argument converts to an empty array. For ints, longs and doubles, prefer the primitive array converters,
+     * which do not box.
+     * @param elementConverter The converter used for each element
+     * @param delimiter The delimiter between elements
+     * @param generator Creates an array of the given length, such as String[]::new
+     * @param maxElements The maximum number of elements; arguments with more fail to convert
+     * @param <T> The type of element
+     * @return A converter for arrays of T
+     * @throws IllegalArgumentException if maxElements is not positive
+     */
+    public static <T> @NotNull ArgumentConverter<T[]> newArrayConverter(@NotNull ArgumentConverter<T> elementConverter,
+                                                                        @NotNull Delimiter delimiter,
+                                                                        @NotNull IntFunction<T[]> generator,
+                                                                        int maxElements) {
+        Objects.requireNonNull(elementConverter, "elementConverter cannot be null");
+        Objects.requireNonNull(generator, "generator cannot be null");
+        validateElements(delimiter, maxElements);
+
+        return (form, argument) -> toArray(convertElements(form, argument, elementConverter, delimiter, maxElements,
+                false), generator);
+    }
+
+    /**
+     * Creates an ArgumentConverter that converts delimited elements into a list, using another converter for each
+     * element. See {@link #newArrayConverter(ArgumentConverter, Delimiter, IntFunction, int)} for details. The list
+     * has a fixed size.
+     * @param elementConverter The converter used for each element
+     * @param delimiter The delimiter between elements
+     * @param maxElements The maximum number of elements; arguments with more fail to convert
+     * @param <T> The type of element
+     * @return A converter for lists of T
+     * @throws IllegalArgumentException if maxElements is not positive
+     */
+    public static <T> @NotNull ArgumentConverter<List<T>> newListConverter(
+            @NotNull ArgumentConverter<T> elementConverter, @NotNull Delimiter delimiter, int maxElements) {
+        Objects.requireNonNull(elementConverter, "elementConverter cannot be null");
+        validateElements(delimiter, maxElements);
+
+        return (form, argument) -> {
+            ConversionResult<Object[]> result = convertElements(form, argument, elementConverter, delimiter,
+                    maxElements, false);
+
+            if(result.isValid()) {
+                //noinspection unchecked
+                return ConversionResult.of(true, (List<T>)Arrays.asList(result.getConversion()), null);
+            }
+
+            return ConversionResult.of(false, null, result.getErrorMessage());
+        };
+    }
 
     /**
      * Creates an ArgumentConverter that can convert an input sequence into an array, given an ArgumentConverter
-     * that is capable of converting individual arguments, and a delimiter to split the input string.
+     * that is capable of converting individual arguments, and a delimiter to split the input string. As with
+     * String.split, trailing empty elements are ignored. The delimiter is compiled once, and plain literal
+     * delimiters are not matched as regular expressions.
      * @param elementConverter The converter that will convert each element
-     * @param delimiter The delimiter used to split up the input string
+     * @param delimiter The regular expression used to split up the input string
      * @param arrayType The type of the array
      * @param <T> The type of argument we're trying to convert
      * @return An argument converter capable of transforming an input string into an array
+     * @deprecated Use {@link #newArrayConverter(ArgumentConverter, Delimiter, IntFunction, int)}, which limits the
+     * number of elements
      */
+    @Deprecated
     public static <T> ArgumentConverter<T[]> newArrayConverter(ArgumentConverter<T> elementConverter, String delimiter,
                                                                Class<T> arrayType) {
         Objects.requireNonNull(elementConverter, "element converter cannot be null");
         Objects.requireNonNull(delimiter, "delimiter cannot be null");
         Objects.requireNonNull(arrayType, "arrayType cannot be null");
 
-        return (form, argument) -> {
-            String[] components = argument.split(delimiter);
-            if(components.length == 0) {
-                //noinspection unchecked
-                return ConversionResult.of(true, (T[])Array.newInstance(arrayType, 0), null);
-            }
+        Delimiter compiled = Delimiter.regex(delimiter);
+        //noinspection unchecked
+        IntFunction<T[]> generator = length -> (T[])Array.newInstance(arrayType, length);
+
+        return (form, argument) -> toArray(convertElements(form, argument, elementConverter, compiled,
+                Integer.MAX_VALUE, true), generator);
+    }
 
-            //noinspection unchecked
-            T[] resultingArray = (T[])Array.newInstance(arrayType, components.length);
+    /*
+    converts each element of the argument, returning an exactly sized array of the converted values or the first
+    failure. if dropTrailingEmpty is set, empty elements are only converted once a non-empty element follows them, as
+    String.split would drop them otherwise
+     */
+    private static ConversionResult<Object[]> convertElements(CommandForm<?> form, String argument,
+                                                              ArgumentConverter<?> elementConverter,
+                                                              Delimiter delimiter, int maxElements,
+                                                              boolean dropTrailingEmpty) {
+        if(argument.isEmpty() && !dropTrailingEmpty) {
+            return EMPTY_ELEMENTS;
+        }
 
-            for(int i = 0; i < components.length; i++) {
-                String component = components[i];
-                ConversionResult<T> result = elementConverter.convert(form, component);
+        boolean drop = dropTrailingEmpty && !argument.isEmpty(); //String.split returns [""] for an empty string
+        Object[] values = new Object[Math.min(maxElements, INITIAL_CAPACITY)];
+        int count = 0;
+        int pendingEmpty = 0;
+
+        Delimiter.Tokenizer elements = delimiter.tokenize(argument);
+        while(elements.next()) {
+            if(drop && elements.start() == elements.end()) {
+                pendingEmpty++;
+                continue;
+            }
 
-                if(result.isValid()) {
-                    resultingArray[i] = result.getConversion();
+            String element = elements.element();
+            for(int i = 0; i <= pendingEmpty; i++) {
+                if(count == maxElements) {
+                    return tooManyElements(maxElements);
                 }
-                else {
+
+                ConversionResult<?> result = elementConverter.convert(form, i < pendingEmpty ? "" : element);
+                if(!result.isValid()) {
                     return ConversionResult.of(false, null, result.getErrorMessage());
                 }
+
+                if(count == values.length) {
+                    values = Arrays.copyOf(values, grow(count, maxElements));
+                }
+
+                values[count++] = result.getConversion();
             }
 
-            return ConversionResult.of(true, resultingArray, null);
-        };
+            pendingEmpty = 0;
+        }
+
+        return ConversionResult.of(true, count == values.length ? values : Arrays.copyOf(values, count), null);
+    }
+
+    private static <T> ConversionResult<T[]> toArray(ConversionResult<Object[]> result, IntFunction<T[]> generator) {
+        if(!result.isValid()) {
+            return ConversionResult.of(false, null, result.getErrorMessage());
+        }
+
+        Object[] values = result.getConversion();
+        T[] array = generator.apply(values.length);
+        System.arraycopy(values, 0, array, 0, values.length);
+        return ConversionResult.of(true, array, null);
+    }
+
+    private static void validateElements(Delimiter delimiter, int maxElements) {
+        Objects.requireNonNull(delimiter, "delimiter cannot be null");
+
+        if(maxElements <= 0) {
+            throw new IllegalArgumentException("maxElements must be positive");
+        }
+    }
+
+    private static int grow(int count, int maxElements) {
+        return (int)Math.min(maxElements, count * 2L);
+    }
+
+    private static <T> ConversionResult<T> tooManyElements(int maxElements) {
+        return ConversionResult.of(false, null, Component.translatable(
+                DefaultKeys.ERROR_CONVERT_TOO_MANY_ELEMENTS.key(), Component.text(maxElements)));
     }
 
     /**
-     * Converts a string to a boolean, case ignored. Throws a NumberFormatException if the conversion fails.
+     * Converts a string to a boolean, case ignored.
      * @param value The input string
-     * @return true if value.equalsIgnoreCase("true"), false if value.equalsIgnoreCase("false")
+     * @return true if value.equalsIgnoreCase("true"), false if value.equalsIgnoreCase("false"), otherwise null
      */
-    private static boolean parseBoolean(String value) {
+    private static @Nullable Boolean parseBoolean(String value) {
         if(value.equalsIgnoreCase("true")) {
-            return true;
+            return Boolean.TRUE;
         }
         else if(value.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+
+        return null;
+    }
+
+    private static <T> ConversionResult<T> failure(DefaultKeys key, String argument) {
+        return ConversionResult.of(false, null, Component.translatable(key.key(), Component.text(argument)));
+    }
+
+    /*
+    the parsers below accept exactly what the corresponding JDK methods accept, but report invalid input by return
+    value. they are used so that bad input, which anyone can type, never costs an exception and its stack trace
+     */
+
+    /*
+    parses the region [start, end) of the argument as Integer.parseInt does, returning INVALID if it is malformed or
+    outside of [min, max]
+     */
+    private static long parseInteger(String argument, int start, int end, long min, long max) {
+        int i = start + signLength(argument, start, end);
+
+        if(i == end) {
+            return INVALID;
+        }
+
+        long value = 0;
+        for(; i < end; i++) {
+            int digit = Character.digit(argument.charAt(i), 10);
+            if(digit < 0) {
+                return INVALID;
+            }
+
+            value = value * 10 + digit;
+            if(value > INTEGER_OVERFLOW) {
+                return INVALID;
+            }
+        }
+
+        if(argument.charAt(start) == '-') {
+            value = -value;
+        }
+
+        return value >= min && value <= max ? value : INVALID;
+    }
+
+    /*
+    parses the region [start, end) of the argument as Long.parseLong does. the value is accumulated negatively, as
+    Long.parseLong does, so that Long.MIN_VALUE can be represented; the negated absolute value is returned, or
+    INVALID_NEGATED if the region is malformed or overflows
+     */
+    private static long parseNegatedLong(String argument, int start, int end) {
+        int i = start + signLength(argument, start, end);
+
+        if(i == end) {
+            return INVALID_NEGATED;
+        }
+
+        long limit = argument.charAt(start) == '-' ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+
+        for(; i < end; i++) {
+            int digit = Character.digit(argument.charAt(i), 10);
+            if(digit < 0 || result < multiplicationLimit) {
+                return INVALID_NEGATED;
+            }
+
+            result *= 10;
+            if(result < limit + digit) {
+                return INVALID_NEGATED;
+            }
+
+            result -= digit;
+        }
+
+        return result;
+    }
+
+    /* true if the argument would be accepted by new BigInteger(String) */
+    private static boolean isBigInteger(String argument) {
+        int length = argument.length();
+        int i = signLength(argument, 0, length);
+
+        if(i == length) {
             return false;
         }
-        else {
-            throw new NumberFormatException();
+
+        for(; i < length; i++) {
+            if(Character.digit(argument.charAt(i), 10) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /* true if the argument would be accepted by new BigDecimal(String), including its limits on the scale */
+    private static boolean isBigDecimal(String argument) {
+        int length = argument.length();
+        int i = signLength(argument, 0, length);
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean point = false;
+
+        for(; i < length; i++) {
+            char c = argument.charAt(i);
+
+            if(c == '.') {
+                if(point) {
+                    return false;
+                }
+
+                point = true;
+            }
+            else if(Character.isDigit(c)) {
+                digits++;
+                if(point) {
+                    fractionDigits++;
+                }
+            }
+            else {
+                break;
+            }
         }
+
+        if(digits == 0) {
+            return false;
+        }
+
+        long exponent = 0;
+        if(i < length) {
+            char c = argument.charAt(i);
+            if(c != 'e' && c != 'E') {
+                return false;
+            }
+
+            int exponentStart = ++i;
+            boolean negative = false;
+            if(i < length && (argument.charAt(i) == '-' || argument.charAt(i) == '+')) {
+                negative = argument.charAt(i++) == '-';
+                exponentStart = i;
+            }
+
+            if(i == length) {
+                return false;
+            }
+
+            for(; i < length; i++) {
+                int digit = Character.digit(argument.charAt(i), 10);
+                if(digit < 0) {
+                    return false;
+                }
+
+                exponent = exponent * 10 + digit;
+                if(exponent > EXPONENT_OVERFLOW) {
+                    return false;
+                }
+            }
+
+            if(i == exponentStart) {
+                return false;
+            }
+
+            exponent = negative ? -exponent : exponent;
+            if(exponent > Integer.MAX_VALUE) { //BigDecimal requires the exponent to fit in an int
+                return false;
+            }
+        }
+
+        long scale = fractionDigits - exponent;
+        return scale >= Integer.MIN_VALUE && scale <= Integer.MAX_VALUE;
+    }
+
+    /*
+    true if the region [start, end) of the argument would be accepted by Double.parseDouble and Float.parseFloat:
+    surrounding whitespace, an optional sign, then NaN, Infinity, a decimal number or a hexadecimal number, then an
+    optional type suffix
+     */
+    private static boolean isFloatingPoint(String argument, int start, int end) {
+        int i = start;
+
+        while(i < end && argument.charAt(i) <= ' ') { //the same whitespace that String.trim removes
+            i++;
+        }
+
+        while(end > i && argument.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        if(i < end && (argument.charAt(i) == '-' || argument.charAt(i) == '+')) {
+            i++;
+        }
+
+        if(i == end) {
+            return false;
+        }
+
+        char first = argument.charAt(i);
+        if(first == 'N' || first == 'I') {
+            String word = first == 'N' ? "NaN" : "Infinity";
+            return end - i == word.length() && argument.startsWith(word, i);
+        }
+
+        boolean hex = first == '0' && i + 1 < end && (argument.charAt(i + 1) == 'x' || argument.charAt(i + 1) == 'X');
+        if(hex) {
+            i += 2;
+        }
+
+        int digits = 0;
+        boolean point = false;
+        for(; i < end; i++) {
+            char c = argument.charAt(i);
+
+            if(c == '.' && !point) {
+                point = true;
+            }
+            else if(hex ? hexDigit(c) : c >= '0' && c <= '9') {
+                digits++;
+            }
+            else {
+                break;
+            }
+        }
+
+        if(digits == 0) {
+            return false;
+        }
+
+        //hexadecimal numbers require a binary exponent; for decimal numbers, the exponent is optional
+        if(i < end && (hex ? argument.charAt(i) == 'p' || argument.charAt(i) == 'P' :
+                argument.charAt(i) == 'e' || argument.charAt(i) == 'E')) {
+            i++;
+            if(i < end && (argument.charAt(i) == '-' || argument.charAt(i) == '+')) {
+                i++;
+            }
+
+            int exponentStart = i;
+            while(i < end && argument.charAt(i) >= '0' && argument.charAt(i) <= '9') {
+                i++;
+            }
+
+            if(i == exponentStart) {
+                return false;
+            }
+        }
+        else if(hex) {
+            return false;
+        }
+
+        if(i < end) {
+            char suffix = argument.charAt(i++);
+            if(suffix != 'f' && suffix != 'F' && suffix != 'd' && suffix != 'D') {
+                return false;
+            }
+        }
+
+        return i == end;
+    }
+
+    private static boolean hexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static int signLength(String argument, int start, int end) {
+        if(start < end) {
+            char first = argument.charAt(start);
+            if(first == '-' || first == '+') {
+                return 1;
+            }
+        }
+
+        return 0;
     }
-}
\ No newline at end of file
+}
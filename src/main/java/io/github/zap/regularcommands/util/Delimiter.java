@@ -0,0 +1,168 @@
+package io.github.zap.regularcommands.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A precompiled delimiter, used by the array and list converters in {@link Converters} to find the elements of an
+ * argument in a single pass. Single-character delimiters are found by scanning for the character, and other literal
+ * delimiters with indexOf; only delimiters created from a regular expression that is not a plain literal are matched
+ * with a Pattern.
+ */
+public final class Delimiter {
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    public static final Delimiter COMMA = literal(",");
+
+    private final String literal; //null if pattern is used
+    private final char single; //used if literal has one character
+    private final Pattern pattern;
+
+    private Delimiter(String literal, Pattern pattern) {
+        this.literal = literal;
+        this.single = literal != null && literal.length() == 1 ? literal.charAt(0) : 0;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Creates a delimiter that matches the given string exactly.
+     * @param literal The delimiter, which cannot be empty
+     * @return A new Delimiter
+     */
+    public static @NotNull Delimiter literal(@NotNull String literal) {
+        Objects.requireNonNull(literal, "literal cannot be null");
+
+        if(literal.isEmpty()) {
+            throw new IllegalArgumentException("literal cannot be empty");
+        }
+
+        return new Delimiter(literal, null);
+    }
+
+    /**
+     * Creates a delimiter that matches a regular expression, as String.split does. Expressions that are a plain
+     * literal, such as "," or "\\|", are matched as literals instead. Empty matches are ignored.
+     * @param regex The regular expression
+     * @return A new Delimiter
+     */
+    public static @NotNull Delimiter regex(@NotNull String regex) {
+        Objects.requireNonNull(regex, "regex cannot be null");
+
+        String literal = asLiteral(regex);
+        return literal == null ? new Delimiter(null, Pattern.compile(regex)) : new Delimiter(literal, null);
+    }
+
+    /**
+     * Creates a Tokenizer over the given argument.
+     * @param argument The argument to split
+     * @return A new Tokenizer
+     */
+    Tokenizer tokenize(String argument) {
+        return new Tokenizer(argument);
+    }
+
+    /* returns the literal matched by the regex, or null if it is not a plain literal */
+    private static String asLiteral(String regex) {
+        if(regex.length() == 2 && regex.charAt(0) == '\\' && !Character.isLetterOrDigit(regex.charAt(1))) {
+            return regex.substring(1); //an escaped metacharacter, such as \\|
+        }
+
+        for(int i = 0; i < regex.length(); i++) {
+            if(METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+
+        return regex.isEmpty() ? null : regex;
+    }
+
+    /**
+     * Finds the elements of one argument, in order. An argument with n delimiters has n + 1 elements, any of which
+     * may be empty.
+     */
+    final class Tokenizer {
+        private final String argument;
+        private final Matcher matcher;
+        private int start;
+        private int end;
+        private int next; //start of the next element, or -1 once the last element has been returned
+
+        private Tokenizer(String argument) {
+            this.argument = argument;
+            this.matcher = pattern == null ? null : pattern.matcher(argument);
+        }
+
+        /**
+         * Advances to the next element.
+         * @return true if there was another element, false otherwise
+         */
+        boolean next() {
+            if(next < 0) {
+                return false;
+            }
+
+            start = next;
+            int delimiterStart;
+            int delimiterEnd;
+
+            if(matcher == null) {
+                delimiterStart = literal.length() == 1 ? argument.indexOf(single, start) :
+                        argument.indexOf(literal, start);
+                delimiterEnd = delimiterStart + literal.length();
+            }
+            else {
+                delimiterStart = -1;
+                delimiterEnd = -1;
+
+                int from = start;
+                while(from <= argument.length() && matcher.find(from)) {
+                    if(matcher.end() > matcher.start()) {
+                        delimiterStart = matcher.start();
+                        delimiterEnd = matcher.end();
+                        break;
+                    }
+
+                    from = matcher.start() + 1; //ignore empty matches
+                }
+            }
+
+            if(delimiterStart < 0) {
+                end = argument.length();
+                next = -1;
+            }
+            else {
+                end = delimiterStart;
+                next = delimiterEnd;
+            }
+
+            return true;
+        }
+
+        /**
+         * Gets the index of the first character of the current element.
+         * @return The start index, inclusive
+         */
+        int start() {
+            return start;
+        }
+
+        /**
+         * Gets the index after the last character of the current element.
+         * @return The end index, exclusive
+         */
+        int end() {
+            return end;
+        }
+
+        /**
+         * Copies the current element out of the argument.
+         * @return The current element
+         */
+        String element() {
+            return argument.substring(start, end);
+        }
+    }
+}
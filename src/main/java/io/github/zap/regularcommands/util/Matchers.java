@@ -0,0 +1,554 @@
+package io.github.zap.regularcommands.util;
+
+import io.github.zap.regularcommands.converter.ArgumentMatcher;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for ArgumentMatchers. Parameters use {@link #of(Pattern)} to recognize common regular expressions
+ * (integers, decimals, single character classes such as identifiers or '.*', and fixed alternations of literals) and
+ * replace them with hand-written matchers, which neither allocate nor backtrack. Expressions that are not recognized
+ * fall back to matching with the Pattern itself.
+ */
+public final class Matchers {
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private enum Sign {
+        NONE,
+        MINUS,
+        ANY
+    }
+
+    //mutable accumulator used while parsing a character class
+    private static final class CharClass {
+        private final boolean[] ascii = new boolean[128];
+        private boolean nonAscii;
+    }
+
+    private static final class PatternMatcher implements ArgumentMatcher {
+        private final Pattern pattern;
+
+        private PatternMatcher(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            return pattern.matcher(argument).matches();
+        }
+    }
+
+    private static final class LiteralMatcher implements ArgumentMatcher {
+        private final String[] options;
+
+        private LiteralMatcher(String[] options) {
+            this.options = options;
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            for(String option : options) {
+                if(option.contentEquals(argument)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Matches a single character class repeated between min and max times. Characters outside of the ASCII range are
+     * either all accepted or all rejected, with the exception of the line terminators excluded by '.'.
+     */
+    private static final class ClassMatcher implements ArgumentMatcher {
+        private final boolean[] ascii;
+        private final boolean nonAscii;
+        private final boolean dot;
+        private final int min;
+        private final int max;
+
+        private ClassMatcher(boolean[] ascii, boolean nonAscii, boolean dot, int min, int max) {
+            this.ascii = ascii;
+            this.nonAscii = nonAscii;
+            this.dot = dot;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            int length = argument.length();
+            int count = 0;
+
+            for(int i = 0; i < length;) {
+                char c = argument.charAt(i);
+
+                if(c < 128) {
+                    if(!ascii[c]) {
+                        return false;
+                    }
+
+                    i++;
+                }
+                else { //regex engine operates on code points, so count surrogate pairs once
+                    int codePoint = Character.codePointAt(argument, i);
+                    if(!nonAscii || dot && (codePoint == 0x85 || codePoint == 0x2028 || codePoint == 0x2029)) {
+                        return false;
+                    }
+
+                    i += Character.charCount(codePoint);
+                }
+
+                if(++count > max) {
+                    return false;
+                }
+            }
+
+            return count >= min;
+        }
+    }
+
+    private static final class IntegerMatcher implements ArgumentMatcher {
+        private final Sign sign;
+        private final boolean noLeadingZero;
+
+        private IntegerMatcher(Sign sign, boolean noLeadingZero) {
+            this.sign = sign;
+            this.noLeadingZero = noLeadingZero;
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            int length = argument.length();
+            int i = skipSign(argument, sign);
+
+            if(i == length) {
+                return false;
+            }
+
+            if(noLeadingZero) {
+                char first = argument.charAt(i++);
+                if(first < '1' || first > '9') {
+                    return false;
+                }
+            }
+
+            for(; i < length; i++) {
+                char c = argument.charAt(i);
+                if(c < '0' || c > '9') {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private static final class DecimalMatcher implements ArgumentMatcher {
+        private final Sign sign;
+        private final boolean integerRequired;
+        private final boolean pointRequired;
+        private final boolean fractionRequired;
+
+        private DecimalMatcher(Sign sign, boolean integerRequired, boolean pointRequired, boolean fractionRequired) {
+            this.sign = sign;
+            this.integerRequired = integerRequired;
+            this.pointRequired = pointRequired;
+            this.fractionRequired = fractionRequired;
+        }
+
+        @Override
+        public boolean matches(@NotNull CharSequence argument) {
+            int length = argument.length();
+            int i = skipSign(argument, sign);
+
+            int integerStart = i;
+            while(i < length && isDigit(argument.charAt(i))) {
+                i++;
+            }
+
+            int integerDigits = i - integerStart;
+            if(i == length) {
+                return !pointRequired && integerDigits > 0;
+            }
+
+            if(argument.charAt(i++) != '.') {
+                return false;
+            }
+
+            int fractionStart = i;
+            while(i < length && isDigit(argument.charAt(i))) {
+                i++;
+            }
+
+            int fractionDigits = i - fractionStart;
+            return i == length && integerDigits + fractionDigits > 0 && (!integerRequired || integerDigits > 0) &&
+                    (!fractionRequired || fractionDigits > 0);
+        }
+    }
+
+    //known numeric shapes, keyed by their regex after normalization (see classify)
+    private static final Map<String, ArgumentMatcher> NUMERIC_SHAPES = new HashMap<>();
+
+    static {
+        Map<String, Sign> signs = Map.of("", Sign.NONE, "-?", Sign.MINUS, "[+-]?", Sign.ANY, "[-+]?", Sign.ANY);
+
+        for(Map.Entry<String, Sign> entry : signs.entrySet()) {
+            String prefix = entry.getKey();
+            Sign sign = entry.getValue();
+
+            if(sign != Sign.NONE) { //unsigned \d+ is handled as a character class
+                NUMERIC_SHAPES.put(prefix + "\\d+", new IntegerMatcher(sign, false));
+            }
+
+            NUMERIC_SHAPES.put(prefix + "[1-9]\\d*", new IntegerMatcher(sign, true));
+            NUMERIC_SHAPES.put(prefix + "\\d+(\\.\\d+)?", new DecimalMatcher(sign, true, false, true));
+            NUMERIC_SHAPES.put(prefix + "\\d+(\\.\\d*)?", new DecimalMatcher(sign, true, false, false));
+            NUMERIC_SHAPES.put(prefix + "\\d*\\.?\\d+", new DecimalMatcher(sign, false, false, true));
+            NUMERIC_SHAPES.put(prefix + "\\d+\\.\\d+", new DecimalMatcher(sign, true, true, true));
+        }
+    }
+
+    /**
+     * Returns an ArgumentMatcher equivalent to calling pattern.matcher(argument).matches(). If the pattern's
+     * expression is recognized, a specialized matcher is returned; otherwise, the returned matcher delegates to the
+     * pattern.
+     * @param pattern The compiled pattern
+     * @return An ArgumentMatcher that accepts exactly the inputs the pattern fully matches
+     */
+    public static @NotNull ArgumentMatcher of(@NotNull Pattern pattern) {
+        Objects.requireNonNull(pattern, "pattern cannot be null");
+
+        if(pattern.flags() == 0) {
+            ArgumentMatcher matcher = classify(pattern.pattern());
+
+            if(matcher != null) {
+                return matcher;
+            }
+        }
+
+        return new PatternMatcher(pattern);
+    }
+
+    /**
+     * Compiles the given regular expression and returns an ArgumentMatcher for it, as if by calling
+     * of(Pattern.compile(regex)).
+     * @param regex The regular expression
+     * @return An ArgumentMatcher that accepts exactly the inputs the regex fully matches
+     */
+    public static @NotNull ArgumentMatcher compile(@NotNull String regex) {
+        return of(Pattern.compile(Objects.requireNonNull(regex, "regex cannot be null")));
+    }
+
+    /**
+     * Returns an ArgumentMatcher that accepts only the given string, compared case-sensitively.
+     * @param literal The string to match
+     * @return An ArgumentMatcher for the literal
+     */
+    public static @NotNull ArgumentMatcher literal(@NotNull String literal) {
+        return new LiteralMatcher(new String[] { Objects.requireNonNull(literal, "literal cannot be null") });
+    }
+
+    private static ArgumentMatcher classify(String regex) {
+        //anchors are redundant, since matching always considers the entire argument
+        int start = regex.startsWith("^") ? 1 : 0;
+        int end = regex.length();
+        if(end > start && regex.charAt(end - 1) == '$' && !isEscaped(regex, end - 1)) {
+            end--;
+        }
+
+        String body = regex.substring(start, end);
+        ArgumentMatcher numeric = NUMERIC_SHAPES.get(body.replace("[0-9]", "\\d").replace("(?:", "("));
+
+        if(numeric != null) {
+            return numeric;
+        }
+
+        ArgumentMatcher literals = literalAlternation(body);
+        return literals != null ? literals : characterClass(body);
+    }
+
+    private static ArgumentMatcher literalAlternation(String body) {
+        String inner = body;
+        if(inner.startsWith("(?:") && inner.endsWith(")")) {
+            inner = inner.substring(3, inner.length() - 1);
+        }
+        else if(inner.startsWith("(") && !inner.startsWith("(?") && inner.endsWith(")")) {
+            inner = inner.substring(1, inner.length() - 1);
+        }
+
+        for(int i = 0; i < inner.length(); i++) {
+            char c = inner.charAt(i);
+            if(c != '|' && METACHARACTERS.indexOf(c) >= 0) {
+                return null;
+            }
+        }
+
+        return new LiteralMatcher(inner.split("\\|", -1));
+    }
+
+    private static ArgumentMatcher characterClass(String body) {
+        if(body.isEmpty()) {
+            return null;
+        }
+
+        CharClass charClass = new CharClass();
+        boolean dot = false;
+        int i;
+
+        char first = body.charAt(0);
+        if(first == '.') {
+            for(int c = 0; c < charClass.ascii.length; c++) {
+                charClass.ascii[c] = c != '\n' && c != '\r';
+            }
+
+            charClass.nonAscii = true;
+            dot = true;
+            i = 1;
+        }
+        else if(first == '\\') {
+            if(body.length() < 2 || !addEscape(body.charAt(1), charClass)) {
+                return null;
+            }
+
+            i = 2;
+        }
+        else if(first == '[') {
+            i = parseSet(body, charClass);
+            if(i < 0) {
+                return null;
+            }
+        }
+        else if(first < 128 && METACHARACTERS.indexOf(first) < 0) {
+            charClass.ascii[first] = true;
+            i = 1;
+        }
+        else {
+            return null;
+        }
+
+        int min = 1;
+        int max = 1;
+
+        if(i < body.length()) {
+            char quantifier = body.charAt(i++);
+            switch (quantifier) {
+                case '*':
+                    min = 0;
+                    max = UNBOUNDED;
+                    break;
+                case '+':
+                    max = UNBOUNDED;
+                    break;
+                case '?':
+                    min = 0;
+                    break;
+                case '{':
+                    int close = body.indexOf('}', i);
+                    if(close < 0) {
+                        return null;
+                    }
+
+                    String bounds = body.substring(i, close);
+                    int comma = bounds.indexOf(',');
+                    min = parseBound(comma < 0 ? bounds : bounds.substring(0, comma));
+                    max = comma < 0 ? min : comma == bounds.length() - 1 ? UNBOUNDED :
+                            parseBound(bounds.substring(comma + 1));
+
+                    if(min < 0 || max < min) {
+                        return null;
+                    }
+
+                    i = close + 1;
+                    break;
+                default:
+                    return null;
+            }
+
+            //lazy and possessive modifiers do not affect whether a single repeated class matches the whole input
+            if(i < body.length() && (body.charAt(i) == '?' || body.charAt(i) == '+')) {
+                i++;
+            }
+        }
+
+        return i == body.length() ? new ClassMatcher(charClass.ascii, charClass.nonAscii, dot, min, max) : null;
+    }
+
+    /*
+    parses a bracketed set starting at index 0, returning the index after the closing bracket, or -1 if the set uses
+    syntax we don't handle (nested classes, intersections, non-ASCII members)
+     */
+    private static int parseSet(String body, CharClass charClass) {
+        boolean[] ascii = charClass.ascii;
+        int i = 1;
+        boolean negated = i < body.length() && body.charAt(i) == '^';
+        if(negated) {
+            i++;
+        }
+
+        boolean empty = true;
+
+        while(i < body.length()) {
+            char c = body.charAt(i);
+
+            if(c == ']') {
+                if(empty) {
+                    return -1;
+                }
+
+                if(negated) {
+                    for(int j = 0; j < ascii.length; j++) {
+                        ascii[j] = !ascii[j];
+                    }
+
+                    charClass.nonAscii = !charClass.nonAscii;
+                }
+
+                return i + 1;
+            }
+
+            if(c == '[' || c == '&' || c >= 128) {
+                return -1;
+            }
+
+            if(c == '\\') {
+                if(i + 1 >= body.length()) {
+                    return -1;
+                }
+
+                char escaped = body.charAt(i + 1);
+                if(Character.isLetterOrDigit(escaped)) {
+                    if(!addEscape(escaped, charClass)) {
+                        return -1;
+                    }
+
+                    i += 2;
+                    empty = false;
+                    continue;
+                }
+
+                c = escaped;
+                i++;
+
+                if(c >= 128) {
+                    return -1;
+                }
+            }
+
+            if(i + 2 < body.length() && body.charAt(i + 1) == '-' && body.charAt(i + 2) != ']') {
+                char rangeEnd = body.charAt(i + 2);
+                if(rangeEnd == '\\' || rangeEnd == '[' || rangeEnd >= 128 || rangeEnd < c) {
+                    return -1;
+                }
+
+                fill(ascii, c, rangeEnd);
+                i += 3;
+            }
+            else {
+                ascii[c] = true;
+                i++;
+            }
+
+            empty = false;
+        }
+
+        return -1;
+    }
+
+    //adds the predefined class for the given escape character, returning false if the escape is unsupported
+    private static boolean addEscape(char escaped, CharClass charClass) {
+        boolean[] ascii = charClass.ascii;
+
+        switch (escaped) {
+            case 'd':
+                fill(ascii, '0', '9');
+                return true;
+            case 'w':
+                fill(ascii, 'a', 'z');
+                fill(ascii, 'A', 'Z');
+                fill(ascii, '0', '9');
+                ascii['_'] = true;
+                return true;
+            case 's':
+                addWhitespace(ascii);
+                return true;
+            case 'D':
+            case 'W':
+            case 'S':
+                CharClass complement = new CharClass();
+                addEscape(Character.toLowerCase(escaped), complement);
+                for(int c = 0; c < ascii.length; c++) {
+                    ascii[c] |= !complement.ascii[c];
+                }
+
+                charClass.nonAscii = true;
+                return true;
+            default:
+                if(escaped < 128 && !Character.isLetterOrDigit(escaped)) {
+                    ascii[escaped] = true;
+                    return true;
+                }
+
+                return false;
+        }
+    }
+
+    private static void addWhitespace(boolean[] ascii) {
+        ascii[' '] = true;
+        ascii['\t'] = true;
+        ascii['\n'] = true;
+        ascii[0x0B] = true;
+        ascii['\f'] = true;
+        ascii['\r'] = true;
+    }
+
+    private static void fill(boolean[] ascii, char from, char to) {
+        for(char c = from; c <= to; c++) {
+            ascii[c] = true;
+        }
+    }
+
+    private static int parseBound(String bound) {
+        if(bound.isEmpty() || bound.length() > 9) {
+            return -1;
+        }
+
+        for(int i = 0; i < bound.length(); i++) {
+            if(!isDigit(bound.charAt(i))) {
+                return -1;
+            }
+        }
+
+        return Integer.parseInt(bound);
+    }
+
+    private static boolean isEscaped(String regex, int index) {
+        int backslashes = 0;
+        for(int i = index - 1; i >= 0 && regex.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+
+        return backslashes % 2 == 1;
+    }
+
+    private static int skipSign(CharSequence argument, Sign sign) {
+        if(sign != Sign.NONE && argument.length() > 0) {
+            char c = argument.charAt(0);
+            if(c == '-' || sign == Sign.ANY && c == '+') {
+                return 1;
+            }
+        }
+
+        return 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -12,14 +12,15 @@ import org.bukkit.entity.Player;
 
 /**
  * Static utility class. Contains several default CommandValidators that can be used to check against who is running
- * the command (entity, player, console, or block).
+ * the command (entity, player, console, or block). None of them read the command's arguments, so they are
+ * {@link io.github.zap.regularcommands.validator.TypedValidationStep}s, which never box them.
  */
 public final class Validators {
-    public static final CommandValidator<CommandSender, ?> ANY = new CommandValidator<>(
+    public static final CommandValidator<CommandSender, ?> ANY = CommandValidator.typed(
             (context, arguments, previousData) ->
                     ValidationResult.of(true, null, context.getSender()));
 
-    public static final CommandValidator<Entity, ?> ENTITY_EXECUTOR = new CommandValidator<>(
+    public static final CommandValidator<Entity, ?> ENTITY_EXECUTOR = CommandValidator.typed(
             (context, form, arguments) -> {
         CommandSender sender = context.getSender();
         if(sender instanceof Entity) {
@@ -29,7 +30,7 @@ public final class Validators {
         return ValidationResult.of(false, Component.translatable(DefaultKeys.ERROR_ENTITY_EXECUTOR.key()), null);
     });
 
-    public static final CommandValidator<Player, ?> PLAYER_EXECUTOR = new CommandValidator<>(
+    public static final CommandValidator<Player, ?> PLAYER_EXECUTOR = CommandValidator.typed(
             (context, form, arguments) -> {
         CommandSender sender = context.getSender();
         if(context.getSender() instanceof Player) {
@@ -39,7 +40,7 @@ public final class Validators {
         return ValidationResult.of(false, Component.translatable(DefaultKeys.ERROR_PLAYER_EXECUTOR.key()), null);
     });
 
-    public static final CommandValidator<ConsoleCommandSender, ?> CONSOLE_EXECUTOR = new CommandValidator<>(
+    public static final CommandValidator<ConsoleCommandSender, ?> CONSOLE_EXECUTOR = CommandValidator.typed(
             (context, form, arguments) -> {
         CommandSender sender = context.getSender();
         if(sender instanceof ConsoleCommandSender) {
@@ -49,7 +50,7 @@ public final class Validators {
         return ValidationResult.of(false, Component.translatable(DefaultKeys.ERROR_CONSOLE_EXECUTOR.key()), null);
     });
 
-    public static final CommandValidator<BlockCommandSender, ?> BLOCK_EXECUTOR = new CommandValidator<>(
+    public static final CommandValidator<BlockCommandSender, ?> BLOCK_EXECUTOR = CommandValidator.typed(
             (context, form, arguments) -> {
         CommandSender sender = context.getSender();
         if(sender instanceof BlockCommandSender) {
@@ -1,5 +1,6 @@
 package io.github.zap.regularcommands.validator;
 
+import io.github.zap.regularcommands.commands.Arguments;
 import io.github.zap.regularcommands.commands.Context;
 
 /**
@@ -44,6 +45,31 @@ public class CommandValidator<T, V> {
       this(step, null);
    }
 
+   /**
+    * Creates a new CommandValidator from a step that reads typed arguments, which does not depend on any other
+    * validators. This is equivalent to the constructor, but lets the step be written as a lambda.
+    * @param step The TypedValidationStep used by this validator
+    * @param <T> The type of data object the validator produces
+    * @param <V> The type of data object the validator receives
+    * @return The new validator
+    */
+   public static <T, V> CommandValidator<T, V> typed(TypedValidationStep<T, V> step) {
+      return new CommandValidator<>(step);
+   }
+
+   /**
+    * Creates a new CommandValidator from a step that reads typed arguments, which depends on another validator.
+    * @param step The TypedValidationStep used by this validator
+    * @param depend The CommandValidator whose success determines whether this instances gets tested or not
+    * @param <T> The type of data object the validator produces
+    * @param <V> The type of data object the validator receives
+    * @return The new validator
+    */
+   public static <T, V> CommandValidator<T, V> typed(TypedValidationStep<T, V> step,
+                                                     CommandValidator<? extends V, ?> depend) {
+      return new CommandValidator<>(step, depend);
+   }
+
    /**
     * Runs validation, given a context and an Object array of arguments. Validators chained last are checked first, and
     * earlier validators will not be executed if later validators fail.
@@ -64,4 +90,25 @@ public class CommandValidator<T, V> {
 
       return ValidationResult.of(false, result.getErrorMessage(), null);
    }
+
+   /**
+    * Runs validation, given a context and typed arguments. Steps that are not {@link TypedValidationStep}s receive
+    * the arguments' array view.
+    * @param context The validation context
+    * @param arguments The command arguments
+    * @return A ValidationResult object indicating the success or failure of this validator.
+    */
+   public ValidationResult<T> validate(Context context, Arguments arguments) {
+      if(depend == null) {
+         return step.validate(context, arguments, null);
+      }
+
+      ValidationResult<? extends V> result = depend.validate(context, arguments);
+
+      if(result.isValid()) {
+         return step.validate(context, arguments, result.getData());
+      }
+
+      return ValidationResult.of(false, result.getErrorMessage(), null);
+   }
 }
\ No newline at end of file
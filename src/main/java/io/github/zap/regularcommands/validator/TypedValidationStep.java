@@ -0,0 +1,22 @@
+package io.github.zap.regularcommands.validator;
+
+import io.github.zap.regularcommands.commands.Arguments;
+import io.github.zap.regularcommands.commands.Context;
+
+/**
+ * A ValidationStep that reads its arguments through {@link Arguments}, so primitive arguments are not boxed. When
+ * used through the array-based method, the array is wrapped in an Arguments instance. See
+ * {@link CommandValidator#typed(TypedValidationStep)} to create a validator from a lambda.
+ * @param <T> The type of data this ValidationResult may return
+ * @param <V> The type of data that was produced by a previously chained validator
+ */
+@FunctionalInterface
+public interface TypedValidationStep<T, V> extends ValidationStep<T, V> {
+    @Override
+    ValidationResult<T> validate(Context context, Arguments arguments, V previousData);
+
+    @Override
+    default ValidationResult<T> validate(Context context, Object[] arguments, V previousData) {
+        return validate(context, Arguments.of(arguments), previousData);
+    }
+}
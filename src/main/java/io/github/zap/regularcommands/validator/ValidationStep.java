@@ -1,5 +1,6 @@
 package io.github.zap.regularcommands.validator;
 
+import io.github.zap.regularcommands.commands.Arguments;
 import io.github.zap.regularcommands.commands.Context;
 
 /**
@@ -15,4 +16,17 @@ public interface ValidationStep<T, V> {
      * @return A ValidationResult object containing the result of this validation
      */
     ValidationResult<T> validate(Context context, Object[] arguments, V previousData);
+
+    /**
+     * Performs this validation step on typed arguments. By default, this passes the arguments' array view to
+     * {@link #validate(Context, Object[], Object)}, which boxes any primitive arguments; steps that read typed
+     * arguments, or ignore them, should implement {@link TypedValidationStep} instead.
+     * @param context The command context
+     * @param arguments The command arguments
+     * @param previousData The data produced by the validator this one depends on, or null
+     * @return A ValidationResult object containing the result of this validation
+     */
+    default ValidationResult<T> validate(Context context, Arguments arguments, V previousData) {
+        return validate(context, arguments.toArray(), previousData);
+    }
 }
@@ -0,0 +1,21 @@
+package io.github.zap.regularcommands.commands;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the default executor for {@link AsyncCommandForm}s. This is the Java 21 implementation, which starts a new
+ * virtual thread for every task, so blocking forms do not need a hand-sized pool.
+ */
+final class DispatchExecutors {
+    private DispatchExecutors() {}
+
+    /**
+     * Creates a new executor.
+     * @param namePrefix The prefix used to name the executor's threads
+     * @return A new ExecutorService
+     */
+    static ExecutorService create(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+    }
+}
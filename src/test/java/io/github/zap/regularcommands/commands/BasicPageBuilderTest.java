@@ -0,0 +1,98 @@
+package io.github.zap.regularcommands.commands;
+
+import io.github.zap.regularcommands.converter.Parameter;
+import io.github.zap.regularcommands.translation.MessageTemplate;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests that {@link BasicPageBuilder} filters entries once per request, and discards cached pages when translations
+ * change.
+ */
+class BasicPageBuilderTest {
+    private static final int ENTRIES = 5;
+    private static final int ENTRIES_PER_PAGE = 2;
+    private static final Permission PERMISSION = new Permission("pages.visible");
+
+    private static final class UsageForm extends CommandForm<Object> {
+        UsageForm(RegularCommand command, int index) {
+            super(command, Component.text("form " + index), index % 2 == 0 ? new PermissionData() :
+                    new PermissionData(Set.of(PERMISSION)), new Parameter("f" + index));
+        }
+
+        @Override
+        public Component execute(Context context, Object[] arguments, Object data) {
+            return null;
+        }
+    }
+
+    private static BasicPageBuilder pageBuilder(CommandManager manager) {
+        BasicPageBuilder pageBuilder = new BasicPageBuilder(ENTRIES_PER_PAGE);
+        RegularCommand command = new RegularCommand(manager, "pages", pageBuilder);
+
+        for(int i = 0; i < ENTRIES; i++) {
+            pageBuilder.addEntry(new UsageForm(command, i));
+        }
+
+        return pageBuilder;
+    }
+
+    @Test
+    void visibleEntriesAreFilteredOncePerPage() {
+        CommandManager manager = new CommandManager(Fakes.plugin(), GlobalTranslator.get());
+        manager.getPermissionCache().setExpiry(Duration.ZERO); //every validation tests the player's permissions
+        BasicPageBuilder pageBuilder = pageBuilder(manager);
+
+        AtomicInteger checks = new AtomicInteger();
+        Player player = Fakes.player(false, Set.of(), checks);
+
+        //forms 0, 2 and 4 need no permission, so the player sees two pages
+        assertEquals(2, pageBuilder.pageCount(player));
+        checks.set(0);
+
+        assertNotNull(pageBuilder.findPage(player, 1));
+        assertEquals(ENTRIES / 2, checks.get());
+
+        checks.set(0);
+        assertNull(pageBuilder.findPage(player, 2));
+        assertNull(pageBuilder.findPage(player, -1));
+        assertEquals(ENTRIES / 2 * 2, checks.get());
+
+        Player privileged = Fakes.player(false, Set.of(PERMISSION.getName()), new AtomicInteger());
+        assertNotNull(pageBuilder.findPage(privileged, 2));
+    }
+
+    @Test
+    void pagesAreRebuiltWhenTranslationsChange() {
+        CommandManager manager = new CommandManager(Fakes.plugin(), GlobalTranslator.get());
+        manager.registerDefaultTranslations();
+        BasicPageBuilder pageBuilder = pageBuilder(manager);
+        Player player = Fakes.player(false, Set.of(), new AtomicInteger());
+
+        Component page = pageBuilder.getPage(player, 0);
+        assertSame(page, pageBuilder.getPage(player, 0));
+
+        manager.getTemplateRegistry().register(DefaultKeys.NAVBAR.key(), Locale.GERMANY,
+                MessageTemplate.compile("-==Seite {0}/{1}==-"));
+        Component rebuilt = pageBuilder.getPage(player, 0);
+        assertNotSame(page, rebuilt);
+        assertSame(rebuilt, pageBuilder.getPage(player, 0));
+
+        manager.getMessageCache().invalidateAll();
+        assertNotSame(rebuilt, pageBuilder.getPage(player, 0));
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.zap.regularcommands.commands;
+
+import net.kyori.adventure.translation.GlobalTranslator;
+import org.bukkit.command.Command;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests how a {@link CommandManager} resolves the labels of its commands.
+ */
+class CommandManagerTest {
+    @Test
+    void labelsHeldByOtherPluginsAreNotClaimed() {
+        Command other = Fakes.command("warp");
+        Plugin plugin = Fakes.plugin(Map.of("warp", other, "w", other));
+
+        PluginCommand pluginCommand = plugin.getServer().getPluginCommand("warp");
+        pluginCommand.setAliases(List.of("w", "Goto"));
+
+        CommandManager manager = new CommandManager(plugin, GlobalTranslator.get());
+        manager.registerCommand(new RegularCommand(manager, "warp", new BasicPageBuilder()));
+
+        //the server only gave the command the alias no other plugin held, and its fallback labels
+        assertNull(manager.getPluginCommand("warp"));
+        assertNull(manager.getPluginCommand("w"));
+        assertSame(pluginCommand, manager.getPluginCommand("goto"));
+        assertSame(pluginCommand, manager.getPluginCommand("GOTO"));
+
+        String prefix = plugin.getName().toLowerCase(Locale.ROOT) + ":";
+        assertSame(pluginCommand, manager.getPluginCommand(prefix + "warp"));
+        assertSame(pluginCommand, manager.getPluginCommand(prefix + "w"));
+        assertSame(pluginCommand, manager.getPluginCommand(prefix + "goto"));
+        assertNull(manager.getPluginCommand("other:warp"));
+    }
+}
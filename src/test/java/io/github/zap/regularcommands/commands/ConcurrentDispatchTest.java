@@ -0,0 +1,247 @@
+package io.github.zap.regularcommands.commands;
+
+import io.github.zap.regularcommands.converter.ArgumentTypes;
+import io.github.zap.regularcommands.converter.Parameter;
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Registers forms on a single thread, as the main thread would, while other threads dispatch and complete commands
+ * against them, checking that every form only ever runs with its own arguments and for senders that hold its
+ * permission, and that completions never include a form that isn't registered yet or that the player may not use.
+ */
+class ConcurrentDispatchTest {
+    private static final String COMMAND = "stress";
+    private static final int FORMS = 256;
+    private static final int REGISTRATION_THREADS = 1;
+    private static final int DISPATCH_THREADS = 3;
+    private static final int COMPLETION_THREADS = 3;
+    private static final int ITERATIONS_AFTER_REGISTRATION = 2000;
+
+    private static final Permission[] PERMISSIONS = {
+            new Permission("stress.0"), new Permission("stress.1"), new Permission("stress.2"),
+            new Permission("stress.3")
+    };
+
+    /* checks every execution against the form's own index, and counts them */
+    private abstract static class StressForm extends CommandForm<Object> {
+        final int index;
+        final AtomicInteger executions = new AtomicInteger();
+        private final Queue<String> errors;
+
+        StressForm(RegularCommand command, int index, Queue<String> errors) {
+            super(command, Component.text("form " + index), new PermissionData(Set.of(permission(index))),
+                    new Parameter(name(index)), new Parameter(ArgumentTypes.INTEGER, Component.text("index")));
+            this.index = index;
+            this.errors = errors;
+        }
+
+        Component check(Context context, int argument) {
+            if(argument != index) {
+                errors.add("form " + index + " was executed with argument " + argument);
+            }
+
+            if(context.getForm() != this) {
+                errors.add("form " + index + " was executed with another form's context");
+            }
+
+            if(!context.getSender().hasPermission(permission(index))) {
+                errors.add("form " + index + " was executed by a sender without its permission");
+            }
+
+            executions.incrementAndGet();
+            return null;
+        }
+    }
+
+    private static final class TypedForm extends StressForm {
+        TypedForm(RegularCommand command, int index, Queue<String> errors) {
+            super(command, index, errors);
+        }
+
+        @Override
+        public Component execute(Context context, Arguments arguments, Object data) {
+            return check(context, arguments.getInt(1));
+        }
+
+        @Override
+        public Component execute(Context context, Object[] arguments, Object data) {
+            return execute(context, Arguments.of(arguments), data);
+        }
+    }
+
+    private static final class ArrayForm extends StressForm {
+        ArrayForm(RegularCommand command, int index, Queue<String> errors) {
+            super(command, index, errors);
+        }
+
+        @Override
+        public Component execute(Context context, Object[] arguments, Object data) {
+            return check(context, (Integer)arguments[1]);
+        }
+    }
+
+    @Test
+    void registrationRacesDispatchAndCompletion() throws InterruptedException {
+        CommandManager manager = new CommandManager(Fakes.plugin(),
+                net.kyori.adventure.translation.GlobalTranslator.get());
+        manager.enableCompletionCache(256, Duration.ofMinutes(1));
+
+        RegularCommand regularCommand = new RegularCommand(manager, COMMAND, new BasicPageBuilder());
+        manager.registerCommand(regularCommand);
+        Command command = Fakes.command(COMMAND);
+
+        List<Player> players = new ArrayList<>();
+        List<Set<String>> grants = new ArrayList<>();
+        for(int i = 0; i <= PERMISSIONS.length; i++) {
+            Set<String> granted = new HashSet<>();
+            for(int j = 0; j < i; j++) {
+                granted.add(PERMISSIONS[j].getName());
+            }
+
+            grants.add(granted);
+            players.add(Fakes.player(false, granted, new AtomicInteger()));
+        }
+
+        Queue<String> errors = new ConcurrentLinkedQueue<>();
+        StressForm[] forms = new StressForm[FORMS];
+        Set<String> registered = ConcurrentHashMap.newKeySet(); //names are added before their form is registered
+        AtomicBoolean registering = new AtomicBoolean(true);
+        AtomicInteger registrationsLeft = new AtomicInteger(REGISTRATION_THREADS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(REGISTRATION_THREADS + DISPATCH_THREADS +
+                COMPLETION_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for(int t = 0; t < REGISTRATION_THREADS; t++) {
+            int thread = t;
+            executor.execute(guard(errors, start, () -> {
+                for(int i = thread; i < FORMS; i += REGISTRATION_THREADS) {
+                    forms[i] = i % 2 == 0 ? new TypedForm(regularCommand, i, errors) :
+                            new ArrayForm(regularCommand, i, errors);
+                    registered.add(name(i));
+                    manager.registerForm(COMMAND, forms[i]);
+                }
+
+                if(registrationsLeft.decrementAndGet() == 0) {
+                    registering.set(false);
+                }
+            }));
+        }
+
+        for(int t = 0; t < DISPATCH_THREADS; t++) {
+            executor.execute(guard(errors, start, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for(int i = 0; registering.get() || i < ITERATIONS_AFTER_REGISTRATION; i++) {
+                    int index = random.nextInt(FORMS);
+                    Player player = players.get(random.nextInt(players.size()));
+                    manager.onCommand(player, command, COMMAND, new String[] { name(index),
+                            Integer.toString(index) });
+                }
+            }));
+        }
+
+        for(int t = 0; t < COMPLETION_THREADS; t++) {
+            executor.execute(guard(errors, start, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for(int i = 0; registering.get() || i < ITERATIONS_AFTER_REGISTRATION; i++) {
+                    int playerIndex = random.nextInt(players.size());
+                    String[] args = { "f" + (random.nextBoolean() ? "" : random.nextInt(10)) };
+                    List<String> completions = random.nextBoolean() ?
+                            manager.onTabComplete(players.get(playerIndex), command, COMMAND, args) :
+                            manager.complete(regularCommand, players.get(playerIndex), args, true);
+
+                    if(completions != null) {
+                        checkCompletions(completions, registered, grants.get(playerIndex), errors);
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "stress test did not finish in time");
+        assertEquals(List.of(), new ArrayList<>(errors));
+
+        //once registration has finished, every player must see exactly the forms it may use
+        for(int p = 0; p < players.size(); p++) {
+            Player player = players.get(p);
+            Set<String> expected = new HashSet<>();
+
+            for(StressForm form : forms) {
+                boolean permitted = grants.get(p).contains(permission(form.index).getName());
+                int before = form.executions.get();
+                manager.onCommand(player, command, COMMAND, new String[] { name(form.index),
+                        Integer.toString(form.index) });
+
+                assertEquals(permitted ? before + 1 : before, form.executions.get(), "executions of form " +
+                        form.index);
+                if(permitted) {
+                    expected.add(name(form.index));
+                }
+            }
+
+            assertEquals(expected, new HashSet<>(manager.onTabComplete(player, command, COMMAND,
+                    new String[] { "f" })));
+        }
+
+        assertEquals(List.of(), new ArrayList<>(errors));
+    }
+
+    private static void checkCompletions(List<String> completions, Set<String> registered, Set<String> granted,
+                                         Queue<String> errors) {
+        for(String completion : completions) {
+            if(!registered.contains(completion)) {
+                errors.add("completed " + completion + " before it was registered");
+            }
+            else if(!granted.contains(permission(Integer.parseInt(completion.substring(1))).getName())) {
+                errors.add("completed " + completion + " for a player without its permission");
+            }
+        }
+    }
+
+    /* waits for the start signal, then runs the task, recording anything it throws */
+    private static Runnable guard(Queue<String> errors, CountDownLatch start, Runnable task) {
+        return () -> {
+            try {
+                start.await();
+                task.run();
+            }
+            catch (Throwable throwable) {
+                errors.add(throwable.toString());
+            }
+        };
+    }
+
+    private static String name(int index) {
+        return "f" + index;
+    }
+
+    private static Permission permission(int index) {
+        return PERMISSIONS[index % PERMISSIONS.length];
+    }
+}
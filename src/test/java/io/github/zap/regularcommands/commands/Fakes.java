@@ -0,0 +1,207 @@
+package io.github.zap.regularcommands.commands;
+
+import org.bukkit.Server;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Stand-ins for the parts of the Bukkit API used by CommandManager, built from dynamic proxies so that tests do not
+ * need a running server. Methods that are not handled return null, false or zero.
+ */
+final class Fakes {
+    private static final Logger LOGGER = Logger.getLogger("RegularCommandsTest");
+
+    private Fakes() {}
+
+    /**
+     * Creates a plugin that is always enabled, whose server reports every thread as the main thread, runs scheduled
+     * tasks immediately, and has a PluginCommand for every name.
+     * @return A new Plugin
+     */
+    static Plugin plugin() {
+        return plugin(Map.of());
+    }
+
+    /**
+     * Creates a plugin like {@link #plugin()}, whose server's command map gives the given labels to commands of other
+     * plugins. The plugin's own commands only get the labels that are left, as they would if they were registered
+     * after the other plugins' commands.
+     * @param otherCommands The commands of other plugins, by label
+     * @return A new Plugin
+     */
+    static Plugin plugin(Map<String, Command> otherCommands) {
+        Plugin[] plugin = new Plugin[1];
+        Map<String, PluginCommand> commands = new ConcurrentHashMap<>();
+        CommandMap commandMap = proxy(CommandMap.class, (method, args) -> {
+            if(method.getName().equals("getCommand")) {
+                String label = (String)args[0];
+                Command other = otherCommands.get(label);
+
+                if(other != null) {
+                    return other;
+                }
+
+                for(PluginCommand command : commands.values()) { //labels are case-insensitive, as in Bukkit
+                    if(command.getName().equalsIgnoreCase(label) || command.getAliases().stream()
+                            .anyMatch(label::equalsIgnoreCase)) {
+                        return command;
+                    }
+                }
+            }
+
+            return null;
+        });
+
+        PluginManager pluginManager = proxy(PluginManager.class, (method, args) -> null);
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (method, args) -> {
+            if(method.getName().equals("runTask")) {
+                ((Runnable)args[1]).run();
+            }
+
+            return null;
+        });
+
+        Server server = proxy(Server.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getPluginManager":
+                    return pluginManager;
+                case "getScheduler":
+                    return scheduler;
+                case "isPrimaryThread":
+                    return true;
+                case "getCommandMap":
+                    return commandMap;
+                case "getPluginCommand":
+                    return commands.computeIfAbsent((String)args[0], name -> new PluginCommand(name, plugin[0]) {});
+                default:
+                    return null;
+            }
+        });
+
+        return plugin[0] = proxy(Plugin.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getServer":
+                    return server;
+                case "getLogger":
+                    return LOGGER;
+                case "getName":
+                    return "RegularCommandsTest";
+                case "isEnabled":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * Creates a player with the given permissions, which are matched by name.
+     * @param op Whether the player is an operator
+     * @param permissions The names of the permissions the player has
+     * @param checks Incremented every time one of the player's permissions is tested
+     * @return A new Player
+     */
+    static Player player(boolean op, Set<String> permissions, AtomicInteger checks) {
+        return player(new AtomicBoolean(op), permissions, checks);
+    }
+
+    /**
+     * Creates a player whose operator status and permissions can be changed after it is created.
+     * @param op Whether the player is an operator
+     * @param permissions The names of the permissions the player has, which is read on every test
+     * @param checks Incremented every time one of the player's permissions is tested
+     * @return A new Player
+     */
+    static Player player(AtomicBoolean op, Set<String> permissions, AtomicInteger checks) {
+        UUID id = UUID.randomUUID();
+
+        return proxy(Player.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return id;
+                case "getName":
+                    return id.toString();
+                case "getLocale":
+                    return "en_us";
+                case "isOp":
+                    return op.get();
+                case "hasPermission":
+                    checks.incrementAndGet();
+                    return permissions.contains(args[0] instanceof Permission ? ((Permission)args[0]).getName() :
+                            args[0]);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * Creates a Command with the given name, as the server would pass to CommandManager.
+     * @param name The name of the command
+     * @return A new Command
+     */
+    static Command command(String name) {
+        return new Command(name) {
+            @Override
+            public boolean execute(CommandSender sender, String label, String[] args) {
+                return false;
+            }
+        };
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            }
+
+            Object result = handler.handle(method, args);
+            return result == null ? defaultValue(method.getReturnType()) : result;
+        };
+
+        return type.cast(Proxy.newProxyInstance(Fakes.class.getClassLoader(), new Class<?>[] { type },
+                invocationHandler));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if(type == boolean.class) {
+            return false;
+        }
+        else if(type == char.class) {
+            return '\0';
+        }
+        else if(type.isPrimitive() && type != void.class) {
+            return type == long.class ? 0L : type == double.class ? 0D : type == float.class ? 0F :
+                    type == int.class ? 0 : type == short.class ? (short)0 : (byte)0;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.zap.regularcommands.commands;
+
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the bitsets used by {@link PermissionInterner} and {@link PermissionCache}, including masks and grants that
+ * span several words, operator requirements, and grants created before a permission was interned.
+ */
+class PermissionCacheTest {
+    private static final int PERMISSIONS = 150; //spans three words
+
+    private static Permission[] permissions(String prefix, int count) {
+        Permission[] permissions = new Permission[count];
+        for(int i = 0; i < count; i++) {
+            permissions[i] = new Permission(prefix + "." + i);
+        }
+
+        return permissions;
+    }
+
+    /* the names of every third permission, starting with the first */
+    private static Set<String> everyThird(Permission[] permissions) {
+        Set<String> names = new HashSet<>();
+        for(int i = 0; i < permissions.length; i += 3) {
+            names.add(permissions[i].getName());
+        }
+
+        return names;
+    }
+
+    private static PermissionData data(Permission... permissions) {
+        return new PermissionData(Set.of(permissions));
+    }
+
+    @Test
+    void masksAndGrantsSpanMoreThan64Permissions() {
+        PermissionInterner interner = new PermissionInterner();
+        Permission[] permissions = permissions("wide", PERMISSIONS);
+        for(Permission permission : permissions) {
+            interner.mask(data(permission)); //interned in order, so each permission's id is its index
+        }
+
+        Player player = Fakes.player(false, everyThird(permissions), new AtomicInteger());
+        PermissionInterner.Grants grants = interner.grants(player, false);
+        assertTrue(interner.coversAll(grants));
+
+        for(int i = 0; i < PERMISSIONS; i++) {
+            PermissionInterner.Mask mask = interner.mask(data(permissions[i]));
+            assertTrue(grants.covers(mask));
+            assertEquals(i % 3 == 0, grants.satisfies(mask), "permission " + i);
+        }
+
+        //masks that cross word boundaries fail if any one word is missing a bit
+        assertTrue(grants.satisfies(interner.mask(data(permissions[0], permissions[63], permissions[129]))));
+        assertFalse(grants.satisfies(interner.mask(data(permissions[0], permissions[64], permissions[129]))));
+        assertFalse(grants.satisfies(interner.mask(data(permissions[63], permissions[127]))));
+        assertTrue(grants.satisfies(interner.mask(data(permissions[66], permissions[132], permissions[147]))));
+        assertFalse(grants.satisfies(interner.mask(data(permissions[66], permissions[132], permissions[148]))));
+    }
+
+    @Test
+    void cacheValidatesAcrossWords() {
+        PermissionCache cache = new PermissionCache();
+        Permission[] permissions = permissions("cache", PERMISSIONS);
+        for(Permission permission : permissions) {
+            cache.prepare(data(permission));
+        }
+
+        AtomicInteger checks = new AtomicInteger();
+        Player player = Fakes.player(false, everyThird(permissions), checks);
+
+        for(int i = 0; i < PERMISSIONS; i++) {
+            assertEquals(i % 3 == 0, cache.validate(player, data(permissions[i])), "permission " + i);
+        }
+
+        //every permission was tested once, when the grants were first created
+        assertEquals(PERMISSIONS, checks.get());
+        assertTrue(cache.validate(player, data(permissions[3], permissions[96], permissions[147])));
+        assertFalse(cache.validate(player, data(permissions[3], permissions[64])));
+        assertEquals(PERMISSIONS, checks.get());
+    }
+
+    @Test
+    void operatorsAreRequiredAndTracked() {
+        PermissionCache cache = new PermissionCache();
+        Permission permission = new Permission("op.permission");
+        PermissionData opOnly = new PermissionData(true);
+        PermissionData opAndPermission = new PermissionData(Set.of(permission), true);
+        cache.prepare(opAndPermission);
+
+        AtomicBoolean op = new AtomicBoolean();
+        Player player = Fakes.player(op, Set.of(permission.getName()), new AtomicInteger());
+        assertFalse(cache.validate(player, opOnly));
+        assertFalse(cache.validate(player, opAndPermission));
+        assertTrue(cache.validate(player, data(permission)));
+
+        //a change in operator status replaces the entry immediately
+        op.set(true);
+        assertTrue(cache.validate(player, opOnly));
+        assertTrue(cache.validate(player, opAndPermission));
+
+        Player operator = Fakes.player(true, Set.of(), new AtomicInteger());
+        assertTrue(cache.validate(operator, opOnly));
+        assertFalse(cache.validate(operator, opAndPermission));
+
+        op.set(false);
+        assertFalse(cache.validate(player, opOnly));
+    }
+
+    @Test
+    void grantsAreEqualOnlyForIndistinguishablePlayers() {
+        PermissionInterner interner = new PermissionInterner();
+        Permission[] permissions = permissions("equal", PERMISSIONS);
+        for(Permission permission : permissions) {
+            interner.mask(data(permission));
+        }
+
+        Set<String> names = everyThird(permissions);
+        PermissionInterner.Grants first = interner.grants(Fakes.player(false, names, new AtomicInteger()), false);
+        PermissionInterner.Grants second = interner.grants(Fakes.player(false, names, new AtomicInteger()), false);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        assertNotEquals(first, interner.grants(Fakes.player(true, names, new AtomicInteger()), true));
+
+        Set<String> fewer = new HashSet<>(names);
+        fewer.remove(permissions[129].getName()); //only differs in the last word
+        assertNotEquals(first, interner.grants(Fakes.player(false, fewer, new AtomicInteger()), false));
+    }
+
+    @Test
+    void grantsOlderThanNewPermissionsAreRefreshed() {
+        PermissionCache cache = new PermissionCache();
+        Permission[] permissions = permissions("stale", 64);
+        for(Permission permission : permissions) {
+            cache.prepare(data(permission));
+        }
+
+        Permission late = new Permission("stale.late"); //interned after the grants are created, with id 64
+        Set<String> names = new HashSet<>(everyThird(permissions));
+        names.add(late.getName());
+
+        AtomicInteger checks = new AtomicInteger();
+        Player player = Fakes.player(false, names, checks);
+        PermissionInterner.Grants old = cache.grants(player);
+        assertNotNull(old);
+        assertSame(old, cache.cachedGrants(player.getUniqueId()));
+        assertEquals(64, checks.get());
+
+        PermissionData lateData = data(late);
+        cache.prepare(lateData);
+
+        //the old grants can't tell whether the player has the new permission, so they can't be used for it
+        assertFalse(cache.satisfies(old, lateData));
+        assertTrue(cache.satisfies(old, data(permissions[0])));
+        assertNull(cache.cachedGrants(player.getUniqueId()));
+
+        //testing the new permission recreates the grants, rather than denying it
+        assertTrue(cache.validate(player, lateData));
+        assertEquals(129, checks.get());
+
+        PermissionInterner.Grants current = cache.grants(player);
+        assertNotEquals(old, current);
+        assertTrue(cache.satisfies(current, lateData));
+        assertSame(current, cache.cachedGrants(player.getUniqueId()));
+        assertEquals(129, checks.get());
+
+        //grants without a mask are refreshed as soon as any permission is interned
+        cache.prepare(data(new Permission("stale.later")));
+        assertNotSame(current, cache.grants(player));
+        assertEquals(195, checks.get());
+    }
+
+    @Test
+    void cachedGrantsRequireAFreshEntry() {
+        PermissionCache cache = new PermissionCache();
+        Permission permission = new Permission("fresh.permission");
+        cache.prepare(data(permission));
+
+        Player player = Fakes.player(false, Set.of(permission.getName()), new AtomicInteger());
+        assertNull(cache.cachedGrants(player.getUniqueId()));
+
+        assertTrue(cache.validate(player, data(permission)));
+        assertNotNull(cache.cachedGrants(player.getUniqueId()));
+
+        cache.invalidate(player.getUniqueId());
+        assertNull(cache.cachedGrants(player.getUniqueId()));
+
+        cache.setExpiry(Duration.ZERO);
+        assertNull(cache.grants(player));
+        assertTrue(cache.validate(player, data(permission)));
+        assertNull(cache.cachedGrants(player.getUniqueId()));
+    }
+}
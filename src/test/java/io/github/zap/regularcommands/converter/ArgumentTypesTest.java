@@ -0,0 +1,49 @@
+package io.github.zap.regularcommands.converter;
+
+import io.github.zap.regularcommands.commands.DefaultKeys;
+import net.kyori.adventure.text.TranslatableComponent;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that keyed ArgumentTypes report unknown names with their error message, rather than not matching.
+ */
+class ArgumentTypesTest {
+    @Test
+    void unknownNamesAreConversionErrors() {
+        ArgumentType<DayOfWeek> type = ArgumentTypes.enumType(DayOfWeek.class);
+
+        assertTrue(type.matches("Monday"));
+        assertEquals(DayOfWeek.MONDAY, type.parse("Monday"));
+
+        //identifier-shaped, so the form matches and the user is told the value is not an option
+        for(String unknown : new String[] { "someday", "day_8", "minecraft:day", "1" }) {
+            assertTrue(type.matches(unknown), unknown);
+            assertNull(type.parse(unknown), unknown);
+        }
+
+        assertEquals(DefaultKeys.ERROR_CONVERT_ENUM.key(), ((TranslatableComponent)type.errorMessage("someday")).key());
+
+        assertFalse(type.matches(""));
+        assertFalse(type.matches("some day"));
+        assertFalse(type.matches("day!"));
+    }
+
+    @Test
+    void namesOfOtherShapesStillMatch() {
+        ArgumentType<Integer> type = ArgumentTypes.keyedType(Map.of("a b", 1, "c+", 2), "feedback.error.custom");
+
+        assertTrue(type.matches("A B"));
+        assertEquals(Integer.valueOf(1), type.parse("A B"));
+        assertTrue(type.matches("C+"));
+        assertFalse(type.matches("d+"));
+        assertEquals("feedback.error.custom", ((TranslatableComponent)type.errorMessage("d")).key());
+    }
+}
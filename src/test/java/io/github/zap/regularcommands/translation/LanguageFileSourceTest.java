@@ -0,0 +1,64 @@
+package io.github.zap.regularcommands.translation;
+
+import net.kyori.adventure.key.Key;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests that a {@link LanguageFileSource} keeps the templates it loads, and translates through their cached
+ * MessageFormats.
+ */
+class LanguageFileSourceTest {
+    private static final String KEY = "feedback.greeting";
+
+    @Test
+    void translationsReuseLoadedTemplates() throws IOException {
+        Path directory = Files.createTempDirectory("language-files");
+
+        try {
+            write(directory.resolve("en_US.properties"), KEY + "=Hello, {0}!");
+            write(directory.resolve("de_DE.properties"), KEY + "=Hallo, {0}!");
+
+            LanguageFileSource source = new LanguageFileSource(Key.key("test", "language_files"), Locale.US, 1,
+                    Logger.getLogger("LanguageFileSourceTest"));
+            source.addDirectory(directory);
+
+            MessageTemplate template = source.template(KEY, Locale.GERMANY);
+            assertSame(template, source.template(KEY, Locale.GERMANY));
+
+            MessageFormat first = source.translate(KEY, Locale.GERMANY);
+            MessageFormat second = source.translate(KEY, Locale.GERMANY);
+            assertNotSame(first, second);
+            assertEquals("Hallo, Steve!", first.format(new Object[] { "Steve" }));
+
+            first.applyPattern("changed");
+            assertEquals("Hallo, Steve!", source.translate(KEY, Locale.GERMANY).format(new Object[] { "Steve" }));
+            assertEquals("Hello, Steve!", source.translate(KEY, Locale.FRANCE).format(new Object[] { "Steve" }));
+        }
+        finally {
+            try(Stream<Path> paths = Files.list(directory)) {
+                for(Path path : (Iterable<Path>)paths::iterator) {
+                    Files.delete(path);
+                }
+            }
+
+            Files.delete(directory);
+        }
+    }
+
+    private static void write(Path path, String contents) throws IOException {
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.zap.regularcommands.translation;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.translation.TranslationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a {@link MessageCache} discards its renderings when the templates it renders from change.
+ */
+class MessageCacheTest {
+    private static final String KEY = "feedback.greeting";
+
+    @Test
+    void renderedMessagesFollowTemplateChanges() {
+        TemplateRegistry registry = new TemplateRegistry(Key.key("test", "templates"), Locale.US);
+        registry.register(KEY, Locale.US, MessageTemplate.compile("Hello"));
+
+        MessageCache cache = new MessageCache(16, registry);
+        Component message = Component.translatable(KEY);
+        assertEquals("Hello", render(cache, message));
+
+        registry.unregister(KEY);
+        registry.register(KEY, Locale.US, MessageTemplate.compile("Howdy"));
+        assertEquals("Howdy", render(cache, message));
+    }
+
+    @Test
+    void pinnedMessagesAreRenderedAgain() {
+        TemplateRegistry registry = new TemplateRegistry(Key.key("test", "templates"), Locale.US);
+        registry.register(KEY, Locale.US, MessageTemplate.compile("Hello"));
+
+        MessageCache cache = new MessageCache(16, registry);
+        Component message = Component.translatable(KEY);
+        cache.pin(message, Locale.US);
+        assertEquals("Hello", render(cache, message));
+
+        registry.register(KEY, Locale.GERMANY, MessageTemplate.compile("Hallo"));
+        registry.unregister(KEY);
+        registry.register(KEY, Locale.US, MessageTemplate.compile("Howdy"));
+        assertEquals("Howdy", render(cache, message));
+
+        //the manual hook keeps pinned messages, rendering them again
+        cache.invalidateAll();
+        assertEquals("Howdy", render(cache, message));
+    }
+
+    @Test
+    void layeredVersionsTrackEveryTemplateLayer() {
+        TemplateRegistry templates = new TemplateRegistry(Key.key("test", "templates"), Locale.US);
+        LayeredTranslator translator = new LayeredTranslator(Key.key("test", "layered"), Locale.US,
+                TranslationRegistry.create(Key.key("test", "registry")), templates);
+
+        long version = translator.version();
+        templates.register(KEY, Locale.US, MessageTemplate.compile("Hello"));
+        assertTrue(translator.version() > version);
+
+        version = translator.version();
+        translator.addLanguageFiles(new LanguageFileSource(Key.key("test", "files"), Locale.US, 1,
+                Logger.getLogger("MessageCacheTest")));
+        assertTrue(translator.version() > version);
+    }
+
+    private static String render(MessageCache cache, Component message) {
+        return ((TextComponent)cache.render(message, Locale.US)).content();
+    }
+}
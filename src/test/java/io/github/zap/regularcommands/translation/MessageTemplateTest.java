@@ -0,0 +1,44 @@
+package io.github.zap.regularcommands.translation;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * Tests that a {@link MessageTemplate} formats as MessageFormat does, and that the MessageFormats it hands out are
+ * independent copies.
+ */
+class MessageTemplateTest {
+    private static final String PATTERN = "Value {0} must be between {1} and '{'{2}'}', isn''t it?";
+    private static final Object[] ARGUMENTS = { "64", "0", "32" };
+
+    @Test
+    void formatsLikeMessageFormat() {
+        MessageTemplate template = MessageTemplate.compile(PATTERN);
+        String expected = new MessageFormat(PATTERN, Locale.US).format(ARGUMENTS);
+
+        assertEquals(expected, template.format(ARGUMENTS));
+        assertEquals(expected, template.toMessageFormat(Locale.US).format(ARGUMENTS));
+    }
+
+    @Test
+    void messageFormatsAreIndependentCopies() {
+        MessageTemplate template = MessageTemplate.compile(PATTERN);
+        MessageFormat first = template.toMessageFormat(Locale.US);
+        MessageFormat second = template.toMessageFormat(Locale.US);
+        assertNotSame(first, second);
+
+        //changing a copy must not affect the copies handed out afterwards
+        first.applyPattern("changed {0}");
+        first.setLocale(Locale.GERMAN);
+
+        MessageFormat third = template.toMessageFormat(Locale.US);
+        assertEquals(new MessageFormat(PATTERN, Locale.US).toPattern(), third.toPattern());
+        assertEquals(Locale.US, third.getLocale());
+        assertEquals(Locale.GERMAN, template.toMessageFormat(Locale.GERMAN).getLocale());
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.zap.regularcommands.util;
+
+import io.github.zap.regularcommands.commands.Arguments;
+import io.github.zap.regularcommands.converter.ArgumentConverter;
+import io.github.zap.regularcommands.converter.ConversionResult;
+import io.github.zap.regularcommands.converter.PrimitiveArgumentConverter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the exception-free parsers in {@link Converters} accept exactly the inputs the JDK's parsing methods
+ * accept, and produce the same values, over a fixed set of edge cases and a large number of random inputs.
+ */
+class ConvertersTest {
+    private static final long SEED = 1;
+    private static final int RANDOM_INPUTS = 100000;
+    private static final int MAX_LENGTH = 26;
+
+    //weighted towards digits; includes every character the JDK treats specially, and a non-ASCII digit
+    private static final String ALPHABET = "001122334455667788999990123456789+-.eExXpPfFdDaAbBNI \t٣";
+
+    private static final List<String> EDGE_CASES = List.of("", "-", "+", "NaN", "-Infinity", "Infinity", " 1.5 ",
+            "0x1p3", "0x.8p1", "0x1.p1", "0x.p1", "1e", "1e+", ".", "1.", ".5", "1.5f", "1d", "2147483647",
+            "2147483648", "-2147483648", "-2147483649", "9223372036854775807", "-9223372036854775808",
+            "9223372036854775808", "-9223372036854775809", "1e2147483647", "1e2147483648", "1e-2147483648",
+            "0e-2147483648", "1.5e-2147483647", "1.5e-2147483648", "00000000000000000000001e5", "32767", "32768",
+            "-32769", "127", "-128", "-129", "true", "FALSE", "TrUe", "yes", "٣٤",
+            "1e00000000000000000002", "4.9e-324", "2.4e-324", "1.7976931348623157e308", "1.8e308");
+
+    private static final Function<String, Object> PARSE_BOOLEAN = argument -> {
+        if(argument.equalsIgnoreCase("true")) {
+            return true;
+        }
+        else if(argument.equalsIgnoreCase("false")) {
+            return false;
+        }
+
+        throw new NumberFormatException(argument);
+    };
+
+    private static List<String> inputs() {
+        List<String> inputs = new ArrayList<>(EDGE_CASES);
+        Random random = new Random(SEED);
+
+        for(int i = 0; i < RANDOM_INPUTS; i++) {
+            int length = random.nextInt(MAX_LENGTH);
+            StringBuilder builder = new StringBuilder(length);
+
+            for(int j = 0; j < length; j++) {
+                builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+
+            inputs.add(builder.toString());
+        }
+
+        return inputs;
+    }
+
+    @Test
+    void integersMatchTheJdk() {
+        for(String input : inputs()) {
+            check(Converters.INTEGER_CONVERTER, Integer::parseInt, input);
+            check(Converters.LONG_CONVERTER, Long::parseLong, input);
+            check(Converters.SHORT_CONVERTER, Short::parseShort, input);
+            check(Converters.BYTE_CONVERTER, Byte::parseByte, input);
+            check(Converters.BIG_INTEGER_CONVERTER, BigInteger::new, input);
+        }
+    }
+
+    @Test
+    void decimalsMatchTheJdk() {
+        for(String input : inputs()) {
+            check(Converters.DOUBLE_CONVERTER, Double::parseDouble, input);
+            check(Converters.FLOAT_CONVERTER, Float::parseFloat, input);
+            check(Converters.BIG_DECIMAL_CONVERTER, BigDecimal::new, input);
+        }
+    }
+
+    @Test
+    void booleansMatchTheJdk() {
+        for(String input : inputs()) {
+            check(Converters.BOOLEAN_CONVERTER, PARSE_BOOLEAN, input);
+        }
+    }
+
+    /* converts the input both as an object and into a primitive slot, if possible, and compares both with the jdk */
+    private static void check(ArgumentConverter<?> converter, Function<String, Object> jdk, String input) {
+        Object expected;
+        try {
+            expected = jdk.apply(input);
+        }
+        catch (NumberFormatException ignored) {
+            expected = null;
+        }
+
+        //none of these converters use the form
+        ConversionResult<?> result = converter.convert(null, input);
+        Object actual = result.isValid() ? result.getConversion() : null;
+        assertEquals(expected, actual, "converting \"" + input + "\"");
+
+        if(converter instanceof PrimitiveArgumentConverter) {
+            Arguments out = new Arguments(1);
+            boolean converted = ((PrimitiveArgumentConverter<?>)converter).convertInto(null, input, out, 0);
+            assertEquals(expected, converted ? out.get(0) : null, "converting \"" + input + "\" into a slot");
+        }
+    }
+}
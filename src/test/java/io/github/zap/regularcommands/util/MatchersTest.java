@@ -0,0 +1,47 @@
+package io.github.zap.regularcommands.util;
+
+import io.github.zap.regularcommands.converter.ArgumentMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the matchers created by {@link Matchers} accept exactly the arguments their Pattern fully matches.
+ */
+class MatchersTest {
+    private static final List<String> ARGUMENTS = List.of("", "a", "abc", "_", "-", "§", "§§", "é", "ü", "ö", "x§",
+            "12", "-12", "1.5", "[", "]", "\\", "ab-c");
+
+    @Test
+    void escapedNonAsciiMembersFallBackToPattern() {
+        check("[\\§]+");
+        check("[a\\§]*");
+        check("[\\é-\\ü]");
+        check("[\\§-\\ü]+");
+        check("[^\\§]+");
+    }
+
+    @Test
+    void recognizedExpressionsMatchLikePattern() {
+        check("[a-z]+");
+        check("[\\-\\[\\]\\\\]+");
+        check("[^a-c]*");
+        check("\\w+");
+        check("-?\\d+");
+        check("abc|ab-c");
+        check(".*");
+    }
+
+    private static void check(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        ArgumentMatcher matcher = Matchers.of(pattern);
+
+        for(String argument : ARGUMENTS) {
+            assertEquals(pattern.matcher(argument).matches(), matcher.matches(argument), regex + " against \"" +
+                    argument + "\"");
+        }
+    }
+}